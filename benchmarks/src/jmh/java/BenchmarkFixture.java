@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+
+/**
+ * Prepares the solver hot paths for benchmarks. JMH benchmarks must live in a named package, which cannot
+ * refer to the default package of the solver, so the benchmarks create this fixture by reflection and call
+ * the operations it returns by name through plain Supplier interfaces.
+ * <p>
+ * Size "n20" is an instance of the instances directory (system property mspsp.instances),
+ * other sizes "nN" are instances generated by InstanceGenerator with N activities and N / 5 resources.
+ */
+public class BenchmarkFixture implements Function<String, Supplier<Object>> {
+
+    private static final String INSTANCE_N20 = "inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+    private static final long SEED = 42;
+
+    private final String filename;
+    private final GeneticAlgorithm geneticAlgorithm;
+    private final Population population;
+    private final Schedule template;
+    private final Schedule scheduled;
+    private final Activity[] mutated;
+    private final SplittableRandom random = new SplittableRandom(SEED);
+
+    public BenchmarkFixture(String size) {
+        filename = instance(size).toString();
+        geneticAlgorithm = new GeneticAlgorithm(filename);
+        geneticAlgorithm.setSeed(SEED);
+        population = geneticAlgorithm.initializePopulation();
+        population.evaluateDuration();
+        population.evaluateConstraints();
+        template = geneticAlgorithm.initializeSchedule();
+        scheduled = population.getIndividuals().get(0).getSchedule();
+        mutated = scheduled.copy(scheduled.getActivities()).getActivities();
+    }
+
+    private static Path instance(String size) {
+        if (size.equals("n20")) {
+            return Paths.get(System.getProperty("mspsp.instances", "instances"), INSTANCE_N20);
+        }
+        int activities = Integer.parseInt(size.substring(1));
+        try {
+            return new InstanceGenerator(activities, Math.max(4, activities / 5), SEED).writeTemporary();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Supplier<Object> apply(String operation) {
+        switch (operation) {
+            case "loadInstance":
+                return () -> geneticAlgorithm.loadInstance(filename);
+            case "randomSchedule":
+                // schedules a fresh copy, scheduling changes the schedule it is given
+                return () -> {
+                    Schedule schedule = template.copy(template.getActivities());
+                    new RandomAlgorithm().schedule(schedule, random);
+                    return schedule;
+                };
+            case "conflicts":
+                return () -> new ConstraintValidation(scheduled).getNumberOfConflicts();
+            case "crossover":
+                return () -> geneticAlgorithm.crossover(population.getIndividuals().get(0).getSchedule().getActivities(),
+                        population.getIndividuals().get(1).getSchedule().getActivities(), random);
+            case "mutate":
+                return () -> {
+                    geneticAlgorithm.mutate(mutated, random);
+                    return mutated;
+                };
+            case "tournament":
+                return () -> new Selection(geneticAlgorithm.getTournamentSize(), population).tournament(random);
+            case "createNewPopulation":
+                return () -> geneticAlgorithm.createNewPopulation(population, 1);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+}
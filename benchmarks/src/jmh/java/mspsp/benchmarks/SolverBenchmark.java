@@ -0,0 +1,79 @@
+package mspsp.benchmarks;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+
+/**
+ * Hot paths of the solver: instance loading, random scheduling, conflict counting, genetic operators and
+ * one whole generation of breeding, on instances of increasing size (see BenchmarkFixture).
+ */
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"n20", "n100", "n500"})
+    public String size;
+
+    private Supplier<Object> loadInstance;
+    private Supplier<Object> randomSchedule;
+    private Supplier<Object> conflicts;
+    private Supplier<Object> crossover;
+    private Supplier<Object> mutate;
+    private Supplier<Object> tournament;
+    private Supplier<Object> createNewPopulation;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException {
+        Function<String, Supplier<Object>> fixture = (Function<String, Supplier<Object>>)
+                Class.forName("BenchmarkFixture").getConstructor(String.class).newInstance(size);
+        loadInstance = fixture.apply("loadInstance");
+        randomSchedule = fixture.apply("randomSchedule");
+        conflicts = fixture.apply("conflicts");
+        crossover = fixture.apply("crossover");
+        mutate = fixture.apply("mutate");
+        tournament = fixture.apply("tournament");
+        createNewPopulation = fixture.apply("createNewPopulation");
+    }
+
+    @Benchmark
+    public Object loadInstance() {
+        return loadInstance.get();
+    }
+
+    @Benchmark
+    public Object randomSchedule() {
+        return randomSchedule.get();
+    }
+
+    @Benchmark
+    public Object conflicts() {
+        return conflicts.get();
+    }
+
+    @Benchmark
+    public Object crossover() {
+        return crossover.get();
+    }
+
+    @Benchmark
+    public Object mutate() {
+        return mutate.get();
+    }
+
+    @Benchmark
+    public Object tournament() {
+        return tournament.get();
+    }
+
+    @Benchmark
+    public Object createNewPopulation() {
+        return createNewPopulation.get();
+    }
+}
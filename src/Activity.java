@@ -4,40 +4,33 @@ import java.util.Set;
 /**
  * Activity is described by skills required, duration and predecessors (precedence relations).
  * After scheduling, activity stores information about resources assigned to it and start time. (-1 initially)
+ * <p>
+ * View over the problem model and the solution arrays of the schedule which owns it.
  */
 public class Activity {
 
-    private final int id;
+    private final Schedule schedule;
+    private final int index;
     private RequiredSkill[] requiredSkills;
-    private int duration;
-    private int start;
-    private Set<Integer> predecessors;
 
-    public Activity(int id, RequiredSkill[] requiredSkills, int duration, int start,
-                    Set<Integer> predecessors) {
-        this.id = id;
-        this.requiredSkills = requiredSkills;
-        this.duration = duration;
-        this.start = start;
-        this.predecessors = predecessors;
-    }
-
-    public Activity(int id, RequiredSkill[] requiredSkills, int duration, Set<Integer> predecessors) {
-        this(id, requiredSkills, duration, -1, predecessors);
+    Activity(Schedule schedule, int index) {
+        this.schedule = schedule;
+        this.index = index;
     }
 
     public String toString() {
         StringBuilder s = new StringBuilder();
-        for (RequiredSkill i : requiredSkills) {
+        for (RequiredSkill i : getRequiredSkills()) {
             s.append(i).append(" ");
         }
         StringBuilder p = new StringBuilder();
+        Set<Integer> predecessors = getPredecessors();
         if (predecessors != null) {
             for (int i : predecessors) {
                 p.append(i).append(" ");
             }
         }
-        return id + ", duration: " + duration + ", start: " + start
+        return getId() + ", duration: " + getDuration() + ", start: " + getStart()
                 + ", required skills: " + s
                 + ", predecessors: " + p;
     }
@@ -46,38 +39,47 @@ public class Activity {
      * Getters and setters.
      */
     public int getId() {
-        return id;
+        return index + 1;
     }
 
-    public RequiredSkill[] getRequiredSkills() {
-        return requiredSkills;
+    /**
+     * Index of the activity in the problem model.
+     */
+    int getIndex() {
+        return index;
     }
 
-    public void setRequiredSkills(RequiredSkill[] requiredSkills) {
-        this.requiredSkills = requiredSkills;
+    Schedule getSchedule() {
+        return schedule;
     }
 
-    public int getDuration() {
-        return duration;
+    /**
+     * Required skills by skill type, created on first call.
+     */
+    public RequiredSkill[] getRequiredSkills() {
+        if (requiredSkills == null) {
+            RequiredSkill[] views = new RequiredSkill[schedule.getNumSkills()];
+            for (int k = 0; k < views.length; k++) {
+                views[k] = new RequiredSkill(schedule, index, k);
+            }
+            requiredSkills = views;
+        }
+        return requiredSkills;
     }
 
-    public void setDuration(int duration) {
-        this.duration = duration;
+    public int getDuration() {
+        return schedule.getModel().getDuration(index);
     }
 
     public int getStart() {
-        return start;
+        return schedule.getStartTimes()[index];
     }
 
     public void setStart(int start) {
-        this.start = start;
+        schedule.getStartTimes()[index] = start;
     }
 
     public Set<Integer> getPredecessors() {
-        return predecessors;
-    }
-
-    public void setPredecessors(Set<Integer> predecessors) {
-        this.predecessors = predecessors;
+        return schedule.getModel().getPredecessorIds(index);
     }
 }
@@ -0,0 +1,163 @@
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Adaptive pursuit controller for operator rates of GeneticAlgorithm.
+ * Crossover probability, mutation probability and tournament size each have a discrete set of arms.
+ * After every generation the arms in use are rewarded with the relative improvement of the best
+ * and average makespan, and selection probabilities are pursued toward the currently best arm.
+ */
+public class AdaptiveOperatorController {
+
+    private static final double[] CROSSOVER_ARMS = {0.1, 0.3, 0.5, 0.7, 0.9};
+    private static final double[] MUTATION_ARMS = {0.01, 0.05, 0.1, 0.2, 0.4};
+    private static final int[] TOURNAMENT_ARMS = {2, 3, 5, 7};
+
+    private static final double ADAPTATION_RATE = 0.3;
+    private static final double LEARNING_RATE = 0.6;
+    private static final double MIN_PROBABILITY = 0.05;
+
+    private final Pursuit crossover;
+    private final Pursuit mutation;
+    private final Pursuit tournament;
+
+    private double previousBest;
+    private double previousAvg;
+
+    public AdaptiveOperatorController() {
+        this.crossover = new Pursuit(CROSSOVER_ARMS.length);
+        this.mutation = new Pursuit(MUTATION_ARMS.length);
+        this.tournament = new Pursuit(TOURNAMENT_ARMS.length);
+    }
+
+    /**
+     * Draws arms for the next generation.
+     */
+    void selectArms(RandomGenerator random) {
+        crossover.select(random.nextDouble());
+        mutation.select(random.nextDouble());
+        tournament.select(random.nextDouble());
+    }
+
+    /**
+     * Rewards arms used for breeding given population with the relative improvement
+     * of its best and average makespan over the previous generation.
+     */
+    void update(Population population) {
+        double best = population.getBestTime();
+        double avg = population.getAvgTime();
+        if (previousBest > 0 && previousAvg > 0) {
+            double reward = Math.max(0, (previousBest - best) / previousBest)
+                    + Math.max(0, (previousAvg - avg) / previousAvg);
+            crossover.reward(reward);
+            mutation.reward(reward);
+            tournament.reward(reward);
+        }
+        previousBest = best;
+        previousAvg = avg;
+    }
+
+    /**
+     * Number of bytes written by save.
+     */
+    int getStateSize() {
+        return 16 + crossover.getStateSize() + mutation.getStateSize() + tournament.getStateSize();
+    }
+
+    void save(ByteBuffer buffer) {
+        buffer.putDouble(previousBest);
+        buffer.putDouble(previousAvg);
+        crossover.save(buffer);
+        mutation.save(buffer);
+        tournament.save(buffer);
+    }
+
+    void restore(ByteBuffer buffer) {
+        previousBest = buffer.getDouble();
+        previousAvg = buffer.getDouble();
+        crossover.restore(buffer);
+        mutation.restore(buffer);
+        tournament.restore(buffer);
+    }
+
+    public double getCrossoverProbability() {
+        return CROSSOVER_ARMS[crossover.current];
+    }
+
+    public double getMutationProbability() {
+        return MUTATION_ARMS[mutation.current];
+    }
+
+    public int getTournamentSize() {
+        return TOURNAMENT_ARMS[tournament.current];
+    }
+
+    /**
+     * Quality estimates and selection probabilities of the arms of a single parameter.
+     */
+    private static class Pursuit {
+        private final double[] quality;
+        private final double[] probability;
+        private final double maxProbability;
+        private int current;
+
+        Pursuit(int arms) {
+            this.quality = new double[arms];
+            this.probability = new double[arms];
+            this.maxProbability = 1.0 - (arms - 1) * MIN_PROBABILITY;
+            for (int i = 0; i < arms; i++) {
+                probability[i] = 1.0 / arms;
+            }
+        }
+
+        /**
+         * Roulette wheel over arm probabilities with given uniform number.
+         */
+        void select(double u) {
+            double cumulative = 0;
+            for (int i = 0; i < probability.length; i++) {
+                cumulative += probability[i];
+                if (u < cumulative) {
+                    current = i;
+                    return;
+                }
+            }
+            current = probability.length - 1;
+        }
+
+        int getStateSize() {
+            return 4 + 16 * quality.length;
+        }
+
+        void save(ByteBuffer buffer) {
+            buffer.putInt(current);
+            for (int i = 0; i < quality.length; i++) {
+                buffer.putDouble(quality[i]);
+                buffer.putDouble(probability[i]);
+            }
+        }
+
+        void restore(ByteBuffer buffer) {
+            current = buffer.getInt();
+            for (int i = 0; i < quality.length; i++) {
+                quality[i] = buffer.getDouble();
+                probability[i] = buffer.getDouble();
+            }
+        }
+
+        void reward(double reward) {
+            quality[current] += ADAPTATION_RATE * (reward - quality[current]);
+            int best = 0;
+            for (int i = 1; i < quality.length; i++) {
+                if (quality[i] > quality[best]) {
+                    best = i;
+                }
+            }
+            for (int i = 0; i < probability.length; i++) {
+                double target = i == best ? maxProbability : MIN_PROBABILITY;
+                probability[i] += LEARNING_RATE * (target - probability[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,849 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+
+/**
+ * Exact solver for small MSPSP instances: depth first branch and bound over the decisions of the serial
+ * schedule generation scheme. At every node one of the eligible activities (all predecessors scheduled)
+ * is scheduled next with one of its staffings, at the earliest time its predecessors allow and all staffing
+ * resources are released. Activities are scheduled in order of their start times (equal starts in order of index),
+ * so a resource is busy in the future only until its release time. Every semi-active schedule, in which no
+ * activity can start earlier with its staffing, is generated by scheduling its activities in this order,
+ * so the search stays exact.
+ * <p>
+ * Resources mastering the same skills form a class. Members of a class released by the start of an activity
+ * are interchangeable from then on, so a staffing is the number of resources taken from every class,
+ * the members released earliest. Nodes are pruned by lower bounds (critical path tails, and for every set of skills
+ * the remaining work of these skills over the resources mastering one of them from their release on), by a
+ * transposition table of visited states (same activities scheduled, same release times per class and the same
+ * finish of activities still waited for, reached with a makespan no better), and once the incumbent reaches the
+ * lower bound of the instance.
+ * Subtrees are forked as tasks of a ForkJoin pool, which balances them by work stealing.
+ * <p>
+ * The first upper bound is the best of the priority rule schedules, the initial individual and a short
+ * simulated annealing run. Only small instances are supported: up to MAX_ACTIVITIES activities they are
+ * usually solved within seconds, the search space grows steeply beyond that. The n20 instances are not solved
+ * within minutes, the run then returns the best schedule found, with isComplete() false.
+ */
+public class BranchAndBound implements Solver {
+
+    /**
+     * Largest instance, activities including the dummy start and end, meant to be solved to optimality.
+     */
+    public static final int MAX_ACTIVITIES = 15;
+
+    private static final int SURPLUS_TASKS = 2;
+    private static final int MAX_TABLE_SIZE = 1_000_000;
+    private static final int MAX_SUBSET_SKILLS = 6;
+    private static final int DEFAULT_ANNEALING_GENERATIONS = 100;
+
+    private final String filename;
+    private int threads;
+    private long seed;
+    private int annealingGenerations;
+    private int stopBound = -1;
+
+    private InstanceLoader instanceLoader;
+    private ProblemModel model;
+    private int numActivities;
+    private int numResources;
+    private int words;
+    private int[] duration;
+    private int[][] predecessors;
+    private int[][] successors;
+    private int[] topologicalOrder;
+    private int[] tail;
+    private boolean[] usesResources;
+    private int[][] classMembers;
+    private Staffing[][] staffings;
+    private int[][] groupResources;
+    private long[][] groupWork;
+    private int instanceLowerBound;
+
+    private final AtomicInteger incumbent = new AtomicInteger(Integer.MAX_VALUE);
+    private final LongAdder nodes = new LongAdder();
+    private final ConcurrentHashMap<StateKey, Integer> table = new ConcurrentHashMap<>();
+    private volatile Node bestNode;
+    private Individual initialIndividual;
+    private volatile Individual bestIndividual;
+    private volatile SimulatedAnnealing annealing;
+    private volatile boolean stopRequested;
+    private volatile boolean complete;
+    private long deadline;
+    private long maxNodes;
+
+    public BranchAndBound(String filename) {
+        this.filename = filename;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.seed = System.nanoTime();
+        this.annealingGenerations = DEFAULT_ANNEALING_GENERATIONS;
+    }
+
+    @Override
+    public Individual run(TerminationCriteria termination, Consumer<Population> listener) {
+        stopRequested = false;
+        termination.start();
+        load();
+        LowerBounds lowerBounds = instanceLoader.getLowerBounds();
+        instanceLowerBound = stopBound >= 0 ? stopBound : lowerBounds.getLowerBound();
+        deadline = termination.getDeadline();
+        maxNodes = termination.getMaxEvaluations() < 0 ? Long.MAX_VALUE : termination.getMaxEvaluations();
+
+        bestIndividual = null;
+        for (GreedyAlgorithm.PriorityRule rule : GreedyAlgorithm.PriorityRule.values()) {
+            Schedule greedy = new Schedule(instanceLoader);
+            greedy = greedy.copy(greedy.getActivities());
+            new GreedyAlgorithm().schedule(greedy, rule);
+            offerUpperBound(evaluate(greedy));
+        }
+        offerUpperBound(initialIndividual);
+        if (annealingGenerations > 0 && !stopRequested) {
+            offerUpperBound(anneal(termination));
+        }
+        incumbent.set(bestIndividual.getConflicts() == 0 ? (int) bestIndividual.getDuration() : Integer.MAX_VALUE);
+        bestNode = null;
+        nodes.reset();
+        table.clear();
+        complete = false;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new Search(root()));
+        } finally {
+            pool.shutdown();
+        }
+        complete = !stopRequested || incumbent.get() <= instanceLowerBound;
+
+        if (bestNode != null) {
+            bestIndividual = evaluate(toSchedule(bestNode));
+        }
+        ArrayList<Individual> individuals = new ArrayList<>();
+        individuals.add(bestIndividual);
+        Population population = new Population(individuals, 0);
+        population.evaluateDuration();
+        population.evaluateConstraints();
+        population.setLowerBounds(lowerBounds);
+        termination.update((int) Math.min(Integer.MAX_VALUE, nodes.sum()), bestIndividual);
+        listener.accept(population);
+        return bestIndividual;
+    }
+
+    /**
+     * Keeps the individual as the best one if it is feasible and shorter, or if there is none yet.
+     */
+    private void offerUpperBound(Individual individual) {
+        if (individual == null) {
+            return;
+        }
+        if (bestIndividual == null || individual.getConflicts() == 0 && (bestIndividual.getConflicts() > 0
+                || individual.getDuration() < bestIndividual.getDuration())) {
+            bestIndividual = individual;
+        }
+    }
+
+    /**
+     * Simulated annealing for the first upper bound, within a quarter of the time budget.
+     */
+    private Individual anneal(TerminationCriteria termination) {
+        SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(filename);
+        simulatedAnnealing.setSeed(seed);
+        simulatedAnnealing.setThreads(Math.max(1, Math.min(threads, simulatedAnnealing.getReplicas())));
+        TerminationCriteria annealingTermination = new TerminationCriteria(annealingGenerations);
+        if (termination.getTimeBudgetMillis() >= 0) {
+            annealingTermination.setTimeBudgetMillis(termination.getTimeBudgetMillis() / 4);
+        }
+        annealing = simulatedAnnealing;
+        try {
+            return stopRequested ? null : simulatedAnnealing.run(annealingTermination, population -> { });
+        } finally {
+            annealing = null;
+        }
+    }
+
+    /**
+     * Staffing of an activity: resources taken from every class and the class of every skill unit.
+     */
+    private static final class Staffing {
+        final int[] usage;
+        final int[] slotClass;
+
+        Staffing(int[] usage, int[] slotClass) {
+            this.usage = usage;
+            this.slotClass = slotClass;
+        }
+    }
+
+    /**
+     * Partial schedule: scheduled activities in order, their start times and staffing, release times
+     * of the resources, makespan, and the last scheduled activity using resources with its start.
+     */
+    private static final class Node {
+        final long[] scheduled;
+        final int[] order;
+        final int count;
+        final int[] start;
+        final int[] slotResource;
+        final int[] release;
+        final int makespan;
+        final int last;
+        final int lastStart;
+
+        Node(long[] scheduled, int[] order, int count, int[] start, int[] slotResource, int[] release, int makespan,
+             int last, int lastStart) {
+            this.scheduled = scheduled;
+            this.order = order;
+            this.count = count;
+            this.start = start;
+            this.slotResource = slotResource;
+            this.release = release;
+            this.makespan = makespan;
+            this.last = last;
+            this.lastStart = lastStart;
+        }
+
+        /**
+         * Activities using resources are scheduled in order of start time and index.
+         */
+        boolean isAfterLast(int activity, int time) {
+            return last < 0 || time > lastStart || time == lastStart && activity > last;
+        }
+
+        boolean isScheduled(int activity) {
+            return (scheduled[activity >>> 6] & (1L << activity)) != 0;
+        }
+    }
+
+    /**
+     * Searches the subtree of a node depth first, children in order of their lower bound.
+     * A child is forked as a new task while the pool runs short of queued tasks, idle workers steal them.
+     */
+    private final class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node node;
+
+        Search(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        protected void compute() {
+            search(node);
+        }
+
+        private void search(Node node) {
+            List<Node> children = expand(node);
+            if (children == null) {
+                return;
+            }
+            List<Search> forked = new ArrayList<>();
+            for (Node child : children) {
+                if (getSurplusQueuedTaskCount() < SURPLUS_TASKS) {
+                    Search task = new Search(child);
+                    task.fork();
+                    forked.add(task);
+                } else {
+                    search(child);
+                }
+            }
+            for (Search task : forked) {
+                task.join();
+            }
+        }
+    }
+
+    /**
+     * Returns children of the node ordered by their lower bound and start time, or null when the node is a leaf or is pruned.
+     */
+    private List<Node> expand(Node node) {
+        nodes.increment();
+        if (stopRequested || incumbent.get() <= instanceLowerBound || node.makespan >= incumbent.get()) {
+            return null;
+        }
+        if (System.nanoTime() >= deadline || nodes.sum() >= maxNodes) {
+            stopRequested = true;
+            return null;
+        }
+        if (node.count == numActivities) {
+            updateIncumbent(node);
+            return null;
+        }
+        List<Node> children = new ArrayList<>();
+        int[][] members = membersByRelease(node);
+        // activities which keep no resource busy start at once, that dominates other orders
+        for (int a = 0; a < numActivities; a++) {
+            if (!node.isScheduled(a) && !usesResources[a] && isEligible(node, a)) {
+                Staffing staffing = staffings[a].length > 0 ? staffings[a][0] : null;
+                children.add(scheduleActivity(node, a, staffing, earliestStart(node, a), members));
+                return children;
+            }
+        }
+        List<Long> keys = new ArrayList<>();
+        for (int a = 0; a < numActivities; a++) {
+            if (node.isScheduled(a) || !isEligible(node, a)) {
+                continue;
+            }
+            int earliest = earliestStart(node, a);
+            for (Staffing staffing : staffings[a]) {
+                for (int time : startTimes(node, staffing, earliest, members)) {
+                    if (!node.isAfterLast(a, time)) {
+                        continue;
+                    }
+                    Node child = scheduleActivity(node, a, staffing, time, members);
+                    int bound = lowerBound(child);
+                    if (bound >= incumbent.get() || !visit(child)) {
+                        continue;
+                    }
+                    long key = (long) bound << 32 | time;
+                    int position = 0;
+                    while (position < keys.size() && keys.get(position) <= key) {
+                        position++;
+                    }
+                    children.add(position, child);
+                    keys.add(position, key);
+                }
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Start times of an activity with the staffing: the earliest one, when its predecessors allow and enough
+     * members of every class are released, and every later release of a member of these classes. Starting then
+     * stands for the semi-active schedules in which the activity waits for that member; which members it gets
+     * does not matter, all released by the start are interchangeable from then on.
+     */
+    private int[] startTimes(Node node, Staffing staffing, int earliest, int[][] members) {
+        int time = earliest;
+        int count = 1;
+        for (int c = 0; c < members.length; c++) {
+            if (staffing.usage[c] > 0) {
+                time = Math.max(time, node.release[members[c][staffing.usage[c] - 1]]);
+                count += members[c].length;
+            }
+        }
+        int[] times = new int[count];
+        times[0] = time;
+        int k = 1;
+        for (int c = 0; c < members.length; c++) {
+            if (staffing.usage[c] > 0) {
+                for (int r : members[c]) {
+                    if (node.release[r] > time) {
+                        times[k++] = node.release[r];
+                    }
+                }
+            }
+        }
+        Arrays.sort(times, 1, k);
+        int distinct = 1;
+        for (int i = 1; i < k; i++) {
+            if (times[i] != times[distinct - 1]) {
+                times[distinct++] = times[i];
+            }
+        }
+        return Arrays.copyOf(times, distinct);
+    }
+
+    private boolean isEligible(Node node, int a) {
+        for (int p : predecessors[a]) {
+            if (!node.isScheduled(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int earliestStart(Node node, int a) {
+        int time = 0;
+        for (int p : predecessors[a]) {
+            time = Math.max(time, node.start[p] + duration[p] + gapAfter(p));
+        }
+        return time;
+    }
+
+    private int gapAfter(int a) {
+        return duration[a] == 0 ? 0 : 1;
+    }
+
+    /**
+     * Members of every class in order of their release time.
+     */
+    private int[][] membersByRelease(Node node) {
+        int[][] members = new int[classMembers.length][];
+        for (int c = 0; c < classMembers.length; c++) {
+            members[c] = classMembers[c].clone();
+            for (int i = 1; i < members[c].length; i++) {
+                int r = members[c][i];
+                int j = i - 1;
+                for (; j >= 0 && node.release[members[c][j]] > node.release[r]; j--) {
+                    members[c][j + 1] = members[c][j];
+                }
+                members[c][j + 1] = r;
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Child starting activity a at given time, its skill units staffed by the members of their classes
+     * released earliest.
+     */
+    private Node scheduleActivity(Node node, int a, Staffing staffing, int time, int[][] members) {
+        int[] slotResource = node.slotResource;
+        int[] release = node.release;
+        int makespan = node.makespan;
+        if (staffing != null) {
+            slotResource = slotResource.clone();
+            release = release.clone();
+            int[] taken = new int[members.length];
+            int firstSlot = model.getFirstSlot(a);
+            for (int unit = 0; unit < staffing.slotClass.length; unit++) {
+                int c = staffing.slotClass[unit];
+                int r = members[c][taken[c]++];
+                slotResource[firstSlot + unit] = r;
+                if (duration[a] > 0) {
+                    release[r] = time + duration[a];
+                }
+            }
+            if (staffing.slotClass.length > 0) {
+                makespan = Math.max(makespan, time + duration[a]);
+            }
+        }
+        long[] scheduled = node.scheduled.clone();
+        scheduled[a >>> 6] |= 1L << a;
+        int[] order = node.order.clone();
+        order[node.count] = a;
+        int[] start = node.start.clone();
+        start[a] = time;
+        boolean ordered = usesResources[a];
+        return new Node(scheduled, order, node.count + 1, start, slotResource, release, makespan,
+                ordered ? a : node.last, ordered ? time : node.lastStart);
+    }
+
+    /**
+     * Makespan bound of a node: earliest starts of unscheduled activities propagated along precedences,
+     * activities using resources not before the last start, followed by their critical path tails.
+     * Then for every group of skills: the remaining work of these skills, done by the resources mastering
+     * one of them from their release on, but not before the earliest start of that work.
+     */
+    private int lowerBound(Node node) {
+        int bound = node.makespan;
+        int[] earliest = new int[numActivities];
+        int[] finish = new int[numActivities];
+        for (int a : topologicalOrder) {
+            if (node.isScheduled(a)) {
+                finish[a] = node.start[a] + duration[a];
+                continue;
+            }
+            int time = 0;
+            for (int p : predecessors[a]) {
+                time = Math.max(time, finish[p] + gapAfter(p));
+            }
+            if (usesResources[a]) {
+                time = Math.max(time, node.lastStart);
+                bound = Math.max(bound, time + duration[a] + tail[a]);
+            }
+            earliest[a] = time;
+            finish[a] = time + duration[a];
+        }
+        for (int g = 0; g < groupResources.length; g++) {
+            long work = 0;
+            int from = Integer.MAX_VALUE;
+            for (int a = 0; a < numActivities; a++) {
+                if (groupWork[g][a] > 0 && !node.isScheduled(a)) {
+                    work += groupWork[g][a];
+                    from = Math.min(from, earliest[a]);
+                }
+            }
+            if (work > 0) {
+                int[] resources = groupResources[g];
+                int[] available = new int[resources.length];
+                for (int i = 0; i < resources.length; i++) {
+                    available[i] = Math.max(node.release[resources[i]], from);
+                }
+                Arrays.sort(available);
+                bound = Math.max(bound, workEnd(available, work));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Earliest time by which resources available from given sorted times do the work.
+     */
+    private static int workEnd(int[] available, long work) {
+        long sum = 0;
+        for (int j = 0; j < available.length; j++) {
+            sum += available[j];
+            long end = (work + sum + j) / (j + 1);
+            if (j + 1 == available.length || end <= available[j + 1]) {
+                return (int) Math.min(Integer.MAX_VALUE, end);
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Records the node in the transposition table, returns false if the same state was reached
+     * before with a makespan at least as good. Times before the last start are all the same for
+     * the rest of the search, they are stored as lastStart - 1.
+     */
+    private boolean visit(Node node) {
+        int floor = node.lastStart - 1;
+        int[] data = new int[node.scheduled.length * 2 + 2 + numResources + numActivities];
+        int k = 0;
+        for (long word : node.scheduled) {
+            data[k++] = (int) word;
+            data[k++] = (int) (word >>> 32);
+        }
+        data[k++] = node.last;
+        data[k++] = node.lastStart;
+        for (int[] members : classMembers) {
+            int from = k;
+            for (int r : members) {
+                data[k++] = Math.max(node.release[r], floor);
+            }
+            Arrays.sort(data, from, k);
+        }
+        // finish of scheduled activities matters only while some successor waits for it
+        for (int a = 0; a < numActivities; a++) {
+            boolean waited = false;
+            if (node.isScheduled(a)) {
+                for (int s : successors[a]) {
+                    if (!node.isScheduled(s)) {
+                        waited = true;
+                        break;
+                    }
+                }
+            }
+            data[k++] = waited ? Math.max(node.start[a] + duration[a] + gapAfter(a), floor) : Integer.MIN_VALUE;
+        }
+        StateKey key = new StateKey(data);
+        Integer previous = table.get(key);
+        if (previous != null && previous <= node.makespan) {
+            return false;
+        }
+        if (previous != null || table.size() < MAX_TABLE_SIZE) {
+            table.merge(key, node.makespan, Math::min);
+        }
+        return true;
+    }
+
+    private synchronized void updateIncumbent(Node node) {
+        if (node.makespan < incumbent.get()) {
+            incumbent.set(node.makespan);
+            bestNode = node;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] data;
+        private final int hash;
+
+        StateKey(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(data, ((StateKey) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private void load() {
+        instanceLoader = new InstanceLoader(filename);
+        instanceLoader.loadInstance();
+        model = instanceLoader.getModel();
+        numActivities = model.getNumActivities();
+        numResources = model.getNumResources();
+        words = (numActivities + 63) / 64;
+        int numSkills = model.getNumSkills();
+
+        duration = new int[numActivities];
+        predecessors = new int[numActivities][];
+        usesResources = new boolean[numActivities];
+        int[] numSuccessors = new int[numActivities];
+        for (int a = 0; a < numActivities; a++) {
+            duration[a] = model.getDuration(a);
+            predecessors[a] = new int[model.getNumPredecessors(a)];
+            for (int p = 0; p < predecessors[a].length; p++) {
+                predecessors[a][p] = model.getPredecessor(a, p);
+                numSuccessors[predecessors[a][p]]++;
+            }
+            usesResources[a] = duration[a] > 0 && model.getEndSlot(a) > model.getFirstSlot(a);
+        }
+        successors = new int[numActivities][];
+        for (int a = 0; a < numActivities; a++) {
+            successors[a] = new int[numSuccessors[a]];
+            numSuccessors[a] = 0;
+        }
+        for (int a = 0; a < numActivities; a++) {
+            for (int p : predecessors[a]) {
+                successors[p][numSuccessors[p]++] = a;
+            }
+        }
+        PrecedenceAnalysis precedenceAnalysis = instanceLoader.getPrecedenceAnalysis();
+        topologicalOrder = precedenceAnalysis.getOrder();
+        tail = resourceTails();
+
+        List<List<Integer>> classes = new ArrayList<>();
+        for (int r = 0; r < numResources; r++) {
+            List<Integer> same = null;
+            for (List<Integer> candidate : classes) {
+                if (sameSkills(candidate.get(0), r, numSkills)) {
+                    same = candidate;
+                    break;
+                }
+            }
+            if (same == null) {
+                same = new ArrayList<>();
+                classes.add(same);
+            }
+            same.add(r);
+        }
+        classMembers = new int[classes.size()][];
+        for (int c = 0; c < classMembers.length; c++) {
+            classMembers[c] = classes.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+        staffings = new Staffing[numActivities][];
+        for (int a = 0; a < numActivities; a++) {
+            staffings[a] = staffings(a);
+        }
+        loadGroups(numSkills);
+    }
+
+    /**
+     * Least time from the finish of every activity to the last finish of an activity staffed by resources
+     * after it, as the makespan is the last finish of a resource; MIN_VALUE if no such activity follows.
+     */
+    private int[] resourceTails() {
+        int[] resourceTail = new int[numActivities];
+        for (int i = numActivities - 1; i >= 0; i--) {
+            int a = topologicalOrder[i];
+            resourceTail[a] = model.getEndSlot(a) > model.getFirstSlot(a) ? 0 : Integer.MIN_VALUE;
+            for (int s : successors[a]) {
+                if (resourceTail[s] != Integer.MIN_VALUE) {
+                    resourceTail[a] = Math.max(resourceTail[a], gapAfter(a) + duration[s] + resourceTail[s]);
+                }
+            }
+        }
+        return resourceTail;
+    }
+
+    private boolean sameSkills(int q, int r, int numSkills) {
+        for (int k = 0; k < numSkills; k++) {
+            if (model.masters(q, k) != model.masters(r, k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Distinct staffings of activity a by the numbers of resources taken from every class.
+     */
+    private Staffing[] staffings(int a) {
+        int[] slotClass = new int[model.getEndSlot(a) - model.getFirstSlot(a)];
+        List<Staffing> result = new ArrayList<>();
+        enumerateStaffings(a, 0, slotClass, new int[classMembers.length], new HashSet<>(), result);
+        return result.toArray(new Staffing[0]);
+    }
+
+    /**
+     * Gives the skill units of activity a from given unit on a class mastering their skill with a member left,
+     * units of the same skill in increasing order of class.
+     */
+    private void enumerateStaffings(int a, int unit, int[] slotClass, int[] usage, Set<StateKey> seen,
+                                    List<Staffing> result) {
+        if (unit == slotClass.length) {
+            if (seen.add(new StateKey(usage.clone()))) {
+                result.add(new Staffing(usage.clone(), slotClass.clone()));
+            }
+            return;
+        }
+        int slot = model.getFirstSlot(a) + unit;
+        int skill = model.getSlotSkill(slot);
+        int from = unit > 0 && model.getSlotSkill(slot - 1) == skill ? slotClass[unit - 1] : 0;
+        for (int c = from; c < classMembers.length; c++) {
+            if (usage[c] < classMembers[c].length && model.masters(classMembers[c][0], skill)) {
+                usage[c]++;
+                slotClass[unit] = c;
+                enumerateStaffings(a, unit + 1, slotClass, usage, seen, result);
+                usage[c]--;
+            }
+        }
+    }
+
+    /**
+     * Groups of skills for the work bounds: every non-empty set of skills while there are few skills,
+     * otherwise every single skill and all of them.
+     */
+    private void loadGroups(int numSkills) {
+        List<Integer> masks = new ArrayList<>();
+        if (numSkills <= MAX_SUBSET_SKILLS) {
+            for (int mask = 1; mask < 1 << numSkills; mask++) {
+                masks.add(mask);
+            }
+        } else {
+            for (int k = 0; k < numSkills; k++) {
+                masks.add(k);
+            }
+            masks.add(-1);
+        }
+        groupResources = new int[masks.size()][];
+        groupWork = new long[masks.size()][numActivities];
+        for (int g = 0; g < masks.size(); g++) {
+            int mask = masks.get(g);
+            boolean[] inGroup = new boolean[numSkills];
+            for (int k = 0; k < numSkills; k++) {
+                inGroup[k] = numSkills <= MAX_SUBSET_SKILLS ? (mask & 1 << k) != 0 : mask < 0 || mask == k;
+            }
+            List<Integer> resources = new ArrayList<>();
+            for (int r = 0; r < numResources; r++) {
+                for (int k = 0; k < numSkills; k++) {
+                    if (inGroup[k] && model.masters(r, k)) {
+                        resources.add(r);
+                        break;
+                    }
+                }
+            }
+            groupResources[g] = resources.stream().mapToInt(Integer::intValue).toArray();
+            for (int a = 0; a < numActivities; a++) {
+                for (int slot = model.getFirstSlot(a); slot < model.getEndSlot(a); slot++) {
+                    if (inGroup[model.getSlotSkill(slot)]) {
+                        groupWork[g][a] += duration[a];
+                    }
+                }
+            }
+        }
+    }
+
+    private Node root() {
+        int[] slotResource = new int[model.getNumSlots()];
+        Arrays.fill(slotResource, -1);
+        return new Node(new long[words], new int[numActivities], 0, new int[numActivities], slotResource,
+                new int[numResources], 0, -1, 0);
+    }
+
+    /**
+     * Writes a complete node into a new schedule of the instance, activities in scheduled order.
+     */
+    private Schedule toSchedule(Node node) {
+        Schedule template = new Schedule(instanceLoader);
+        Activity[] byIndex = template.getActivities();
+        Activity[] ordered = new Activity[numActivities];
+        for (int i = 0; i < numActivities; i++) {
+            ordered[i] = byIndex[node.order[i]];
+        }
+        Schedule schedule = template.copy(ordered);
+        System.arraycopy(node.start, 0, schedule.getStartTimes(), 0, numActivities);
+        System.arraycopy(node.slotResource, 0, schedule.getSlotResources(), 0, node.slotResource.length);
+        int[] finish = schedule.getResourceFinishTimes();
+        int[] currentActivityId = schedule.getCurrentActivityIds();
+        Arrays.fill(finish, -1);
+        Arrays.fill(currentActivityId, -1);
+        for (int a : node.order) {
+            for (int slot = model.getFirstSlot(a); slot < model.getEndSlot(a); slot++) {
+                int r = node.slotResource[slot];
+                if (node.start[a] + duration[a] > finish[r]) {
+                    finish[r] = node.start[a] + duration[a];
+                    currentActivityId[r] = a + 1;
+                }
+            }
+        }
+        return schedule;
+    }
+
+    private Individual evaluate(Schedule schedule) {
+        Individual individual = new Individual(schedule);
+        Evaluation evaluation = new Evaluation(schedule);
+        individual.setDuration(evaluation.getDuration());
+        individual.setConflicts(evaluation.getNumberOfConflicts());
+        return individual;
+    }
+
+    @Override
+    public Individual getBestIndividual() {
+        return bestIndividual;
+    }
+
+    @Override
+    public void stop() {
+        stopRequested = true;
+        SimulatedAnnealing running = annealing;
+        if (running != null) {
+            running.stop();
+        }
+    }
+
+    /**
+     * True if the last run explored the whole search space or reached the lower bound of the instance.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Schedule found by another solver, its makespan prunes the search from the start.
+     */
+    public void setInitialIndividual(Individual initialIndividual) {
+        this.initialIndividual = initialIndividual;
+    }
+
+    /**
+     * Makespan at which the search stops as optimal, the lower bound of the instance by default (-1).
+     * 0 searches until the whole space is explored, without relying on LowerBounds.
+     */
+    void setStopBound(int stopBound) {
+        this.stopBound = stopBound;
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Seed of the simulated annealing run for the first upper bound.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getAnnealingGenerations() {
+        return annealingGenerations;
+    }
+
+    /**
+     * Generations of simulated annealing for the first upper bound, 0 starts from the priority rules only.
+     */
+    public void setAnnealingGenerations(int annealingGenerations) {
+        this.annealingGenerations = annealingGenerations;
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+
+/**
+ * Optional pipelined generation of GeneticAlgorithm. Breeder threads breed the children of a generation into
+ * a bounded queue and evaluator threads take them from it right away, reducing the statistics of the population
+ * on the fly, so evaluation overlaps breeding instead of waiting for the whole population.
+ * A child depends only on its position and the parents, and the statistics do not depend on the order
+ * of evaluation, so the populations are the same as bred and evaluated one phase after the other.
+ */
+public class BreedingPipeline {
+
+    private static final long POLL_MILLIS = 1;
+
+    private final int breeders;
+    private final int evaluators;
+    private final int capacity;
+    private ExecutorService executor;
+
+    public BreedingPipeline(int breeders, int evaluators, int capacity) {
+        if (breeders < 1 || evaluators < 1 || capacity < 1) {
+            throw new IllegalArgumentException("Pipeline needs a breeder, an evaluator and queue capacity");
+        }
+        this.breeders = breeders;
+        this.evaluators = evaluators;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Breeds children at positions 0 to size - 1 by given function and evaluates those below evaluated,
+     * returns their tally. Waits until all are done. Breeders stop at the deadline (System.nanoTime()),
+     * evaluators once the queue is empty after that; the generation is incomplete then and null is returned.
+     */
+    Population.Tally run(int size, int evaluated, IntFunction<Individual> breed, double maxDuration, long deadline) {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(breeders + evaluators, runnable -> {
+                Thread thread = new Thread(runnable, "pipeline-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        BlockingQueue<Individual> queue = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger nextChild = new AtomicInteger();
+        AtomicInteger nextEvaluation = new AtomicInteger();
+        AtomicBoolean expired = new AtomicBoolean();
+        Population.Tally tally = new Population.Tally();
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < breeders; i++) {
+            tasks.add(completion.submit(() -> {
+                for (int child = nextChild.getAndIncrement(); child < size; child = nextChild.getAndIncrement()) {
+                    if (System.nanoTime() >= deadline) {
+                        expired.set(true);
+                        return null;
+                    }
+                    Individual individual = breed.apply(child);
+                    if (child < evaluated) {
+                        while (!queue.offer(individual, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                            if (expired.get()) {
+                                return null;
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < evaluators; i++) {
+            tasks.add(completion.submit(() -> {
+                Population.Tally part = new Population.Tally();
+                while (nextEvaluation.getAndIncrement() < evaluated) {
+                    Individual individual;
+                    while ((individual = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                        if (expired.get()) {
+                            return null;
+                        }
+                    }
+                    part.evaluate(individual, maxDuration);
+                }
+                synchronized (tally) {
+                    tally.merge(part);
+                }
+                return null;
+            }));
+        }
+        await(completion, tasks);
+        if (expired.get()) {
+            return null;
+        }
+        synchronized (tally) {
+            return tally;
+        }
+    }
+
+    /**
+     * Waits for the tasks in order of completion. As soon as one fails, the others are cancelled,
+     * which interrupts those blocked on the queue.
+     */
+    private static void await(CompletionService<Void> completion, List<Future<Void>> tasks) {
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            throw new IllegalStateException("Pipelined generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pipelined generation interrupted", e);
+        }
+    }
+
+    /**
+     * Stops the workers at the end of a run, a next run starts new ones.
+     */
+    void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
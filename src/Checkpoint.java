@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+
+/**
+ * Compact binary snapshot of GeneticAlgorithm state taken after a generation has been evaluated:
+ * population genomes with cached fitness, best individual, counters, operator rates and statistics.
+ * Random streams depend only on the seed and position (see RandomStreams), so the seed is the whole RNG state.
+ * <p>
+ * Layout: header, individuals, CRC32 of everything before it. Activity and resource ids are stored as shorts.
+ */
+public class Checkpoint {
+
+    private static final int MAGIC = 0x4d535043;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8 + 8 + 4 + 4 + 8 + 8 + 4 + 1 + 4 + 4 + 4;
+
+    private Checkpoint() {
+    }
+
+    /**
+     * Serializes the state into a buffer ready to be written.
+     */
+    static ByteBuffer write(GeneticAlgorithm geneticAlgorithm, Population population, TerminationCriteria termination) {
+        ArrayList<Individual> individuals = population.getIndividuals();
+        AdaptiveOperatorController controller = geneticAlgorithm.getAdaptiveController();
+        Schedule sample = individuals.get(0).getSchedule();
+        int individualSize = getIndividualSize(sample);
+
+        int size = HEADER_SIZE + (controller != null ? controller.getStateSize() : 0)
+                + individualSize * (individuals.size() + 1) + 8;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(geneticAlgorithm.getSeed());
+        buffer.putInt(termination.getGeneration());
+        buffer.putLong(termination.getEvaluations());
+        buffer.putDouble(termination.getBestDuration());
+        buffer.putInt(termination.getBestConflicts());
+        buffer.putInt(termination.getGenerationsWithoutImprovement());
+        buffer.putDouble(geneticAlgorithm.getMutationProbability());
+        buffer.putDouble(geneticAlgorithm.getCrossoverProbability());
+        buffer.putInt(geneticAlgorithm.getTournamentSize());
+        buffer.put((byte) (controller != null ? 1 : 0));
+        if (controller != null) {
+            controller.save(buffer);
+        }
+        buffer.putInt(individuals.size());
+        buffer.putInt(sample.getActivities().length);
+        buffer.putInt(sample.getResources().length);
+
+        writeIndividual(buffer, geneticAlgorithm.getBestIndividual());
+        for (Individual individual : individuals) {
+            writeIndividual(buffer, individual);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Restores state from the checkpoint file into given algorithm and termination criteria
+     * and returns the population the run continues from.
+     */
+    static Population read(Path checkpointFile, GeneticAlgorithm geneticAlgorithm, TerminationCriteria termination)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 8);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                || buffer.getLong(buffer.limit() - 8) != crc.getValue()) {
+            throw new IOException("Not a valid checkpoint: " + checkpointFile);
+        }
+
+        geneticAlgorithm.setSeed(buffer.getLong());
+        int generation = buffer.getInt();
+        long evaluations = buffer.getLong();
+        double bestDuration = buffer.getDouble();
+        int bestConflicts = buffer.getInt();
+        int generationsWithoutImprovement = buffer.getInt();
+        termination.restore(generation, evaluations, bestDuration, bestConflicts, generationsWithoutImprovement);
+        geneticAlgorithm.setMutationProbability(buffer.getDouble());
+        geneticAlgorithm.setCrossoverProbability(buffer.getDouble());
+        geneticAlgorithm.setTournamentSize(buffer.getInt());
+        if (buffer.get() == 1) {
+            if (geneticAlgorithm.getAdaptiveController() == null) {
+                geneticAlgorithm.enableAdaptiveOperators();
+            }
+            geneticAlgorithm.getAdaptiveController().restore(buffer);
+        }
+        int numIndividuals = buffer.getInt();
+        int numActivities = buffer.getInt();
+        int numResources = buffer.getInt();
+
+        Schedule template = geneticAlgorithm.initializeSchedule();
+        if (template.getActivities().length != numActivities || template.getResources().length != numResources) {
+            throw new IOException("Checkpoint does not match the instance: " + checkpointFile);
+        }
+
+        geneticAlgorithm.setBestIndividual(readIndividual(buffer, template));
+        ArrayList<Individual> individuals = new ArrayList<>(numIndividuals);
+        for (int i = 0; i < numIndividuals; i++) {
+            individuals.add(readIndividual(buffer, template));
+        }
+        return new Population(individuals, generation);
+    }
+
+    private static int getIndividualSize(Schedule schedule) {
+        int size = 8 + 4;
+        for (Activity activity : schedule.getActivities()) {
+            size += 2 + 4;
+            for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
+                size += 2 * requiredSkill.getSkills().length;
+            }
+        }
+        return size + 8 * schedule.getResources().length;
+    }
+
+    private static void writeIndividual(ByteBuffer buffer, Individual individual) {
+        buffer.putDouble(individual.getDuration());
+        buffer.putInt(individual.getConflicts());
+        Schedule schedule = individual.getSchedule();
+        for (Activity activity : schedule.getActivities()) {
+            buffer.putShort((short) activity.getId());
+            buffer.putInt(activity.getStart());
+            for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
+                for (Skill skill : requiredSkill.getSkills()) {
+                    buffer.putShort((short) skill.getResourceId());
+                }
+            }
+        }
+        for (Resource resource : schedule.getResources()) {
+            buffer.putInt(resource.getFinish());
+            buffer.putInt(resource.getCurrentActivityId());
+        }
+    }
+
+    private static Individual readIndividual(ByteBuffer buffer, Schedule template) {
+        double duration = buffer.getDouble();
+        int conflicts = buffer.getInt();
+        Schedule schedule = template.copy(template.getActivities());
+        Activity[] activities = new Activity[template.getActivities().length];
+        for (int i = 0; i < activities.length; i++) {
+            Activity activity = schedule.getActivity(buffer.getShort());
+            activity.setStart(buffer.getInt());
+            for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
+                for (Skill skill : requiredSkill.getSkills()) {
+                    skill.setResourceId(buffer.getShort());
+                }
+            }
+            activities[i] = activity;
+        }
+        schedule.setActivities(activities);
+        for (Resource resource : schedule.getResources()) {
+            resource.setFinish(buffer.getInt());
+            resource.setCurrentActivityId(buffer.getInt());
+        }
+        Individual individual = new Individual(schedule);
+        individual.setDuration(duration);
+        individual.setConflicts(conflicts);
+        return individual;
+    }
+}
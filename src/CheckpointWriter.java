@@ -0,0 +1,83 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Writes checkpoints on a background thread, so the evolution loop never waits for the disk.
+ * A checkpoint is written into a temporary file which is then atomically renamed over the target,
+ * so the target always holds a complete checkpoint. While a write is in progress only the newest
+ * submitted checkpoint is kept.
+ */
+public class CheckpointWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(CheckpointWriter.class.getName());
+
+    private final Path target;
+    private final Path temp;
+    private ExecutorService executor;
+    private final AtomicReference<ByteBuffer> pending = new AtomicReference<>();
+
+    public CheckpointWriter(Path target) {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    void submit(ByteBuffer checkpoint) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "checkpoint-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (pending.getAndSet(checkpoint) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        ByteBuffer checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) {
+            return;
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (checkpoint.hasRemaining()) {
+                    channel.write(checkpoint);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Writing checkpoint failed: " + e);
+        }
+    }
+
+    /**
+     * Waits for the last submitted checkpoint to be written at the end of a run, a next run starts a new writer thread.
+     */
+    void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+}
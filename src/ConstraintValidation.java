@@ -1,17 +1,23 @@
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 /**
- * Utility class for validating constraints on the Schedule
+ * Utility class for validating constraints on the Schedule.
+ * Works on the flat arrays of the schedule and its problem model.
+ * The conflict check first marks the activities in resource Occupancy bitmaps over the horizon (maxt),
+ * which in the common case proves that no resource is double-booked, and only otherwise compares activities
+ * pairwise, over candidates found by Kernels.
  */
 public class ConstraintValidation {
 
-    private final Schedule schedule;
+    private static final ThreadLocal<Occupancy> OCCUPANCY = ThreadLocal.withInitial(Occupancy::new);
+    private static final ThreadLocal<int[]> CANDIDATES = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ProblemModel model;
+    private final int[] start;
+    private final int[] slotResource;
 
     public ConstraintValidation(Schedule schedule) {
-        this.schedule = schedule;
+        this.model = schedule.getModel();
+        this.start = schedule.getStartTimes();
+        this.slotResource = schedule.getSlotResources();
     }
 
     public boolean validate() {
@@ -33,11 +39,13 @@ public class ConstraintValidation {
      */
     private int validateAssignmentConstraint() {
         int conflictsFound = 0;
-        for (Activity activity : schedule.getActivities()) {
-            RequiredSkill[] requiredSkills = activity.getRequiredSkills();
-            for (RequiredSkill skill : requiredSkills) {
-                if (skill.getRequired() != skill.getAssigned()) {
-                    conflictsFound++;
+        for (int a = 0; a < model.getNumActivities(); a++) {
+            for (int k = 0; k < model.getNumSkills(); k++) {
+                for (int s = model.getFirstSlot(a, k); s < model.getEndSlot(a, k); s++) {
+                    if (slotResource[s] == -1) {
+                        conflictsFound++;
+                        break;
+                    }
                 }
             }
         }
@@ -46,48 +54,94 @@ public class ConstraintValidation {
 
     /**
      * Checks whether a resource exists, which is assigned to multiple activities
-     * in the same period of time.
+     * in the same period of time. Every such pair of activities counts once per skill type.
      */
-    private int validateConflictConstraint() {
+    int validateConflictConstraint() {
+        if (!isDoubleBooked()) {
+            return countConflictsAtInstants();
+        }
+        int[] candidates = CANDIDATES.get();
+        if (candidates.length < model.getNumActivities()) {
+            candidates = new int[model.getNumActivities()];
+            CANDIDATES.set(candidates);
+        }
         int conflictsFound = 0;
-        Activity[] activities = schedule.getActivities();
-        for (Activity firstActivity : activities) {
-            for (Activity secondActivity : activities) {
-                if (firstActivity.getId() != secondActivity.getId()) {
-                    RequiredSkill[] firstActivitySkills = firstActivity.getRequiredSkills();
-                    RequiredSkill[] secondActivitySkills = secondActivity.getRequiredSkills();
-                    for (int i = 0; i < schedule.getNumSkills(); i++) {
-                        if (firstActivity.getStart() <= secondActivity.getStart() &&
-                                (firstActivity.getStart() + firstActivity.getDuration()) > secondActivity.getStart() &&
-                                haveSameResourceAssigned(firstActivitySkills, secondActivitySkills)) {
-                            conflictsFound++;
-                        }
-                    }
+        int numActivities = model.getNumActivities();
+        for (int a = 0; a < numActivities; a++) {
+            int count = Kernels.indexesWithin(start, start[a], start[a] + model.getDuration(a), candidates);
+            for (int i = 0; i < count; i++) {
+                int b = candidates[i];
+                if (a != b && haveSameResourceAssigned(a, b)) {
+                    conflictsFound += model.getNumSkills();
                 }
             }
         }
         return conflictsFound;
     }
 
-    private boolean haveSameResourceAssigned(RequiredSkill[] firstActivitySkills, RequiredSkill[] secondActivitySkills) {
-        int numSkills = firstActivitySkills.length;
-        for (int i = 0; i < numSkills; i++) {
-            Skill[] firstActivitySkillsByType = firstActivitySkills[i].getSkills();
-            Skill[] secondActivitySkillsByType = secondActivitySkills[i].getSkills();
-            Set<Integer> firstActivitySkillsResourceSet = Arrays.stream(firstActivitySkillsByType)
-                    .map(Skill::getResourceId)
-                    .collect(Collectors.toSet());
-            Set<Integer> secondActivitySkillsResourceSet = Arrays.stream(secondActivitySkillsByType)
-                    .map(Skill::getResourceId)
-                    .collect(Collectors.toSet());
-            if (firstActivitySkillsResourceSet.isEmpty() || secondActivitySkillsResourceSet.isEmpty()) {
-                return false;
+    /**
+     * Occupies the resources of activities with nonzero duration over the horizon.
+     * Returns false only if every slot of them is assigned and no resource is occupied twice at once:
+     * then no pair of them overlaps on a resource. True also if an activity lies outside of the horizon.
+     */
+    private boolean isDoubleBooked() {
+        int horizon = model.getMaxMakespan();
+        Occupancy occupancy = OCCUPANCY.get();
+        occupancy.reset(model.getNumResources(), horizon);
+        for (int a = 0; a < model.getNumActivities(); a++) {
+            int finish = start[a] + model.getDuration(a);
+            if (finish == start[a]) {
+                continue;
             }
-            Set<Integer> intersection = new HashSet<>(firstActivitySkillsResourceSet);
-            intersection.retainAll(secondActivitySkillsResourceSet);
-            if (!intersection.isEmpty()) {
+            if (start[a] < 0 || finish > horizon) {
                 return true;
             }
+            for (int s = model.getFirstSlot(a); s < model.getEndSlot(a); s++) {
+                if (slotResource[s] < 0 || !occupancy.tryOccupy(slotResource[s], start[a], finish)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Conflicts with activities of zero duration, the only ones left when no resource is double-booked.
+     */
+    private int countConflictsAtInstants() {
+        int conflictsFound = 0;
+        int numActivities = model.getNumActivities();
+        for (int b = 0; b < numActivities; b++) {
+            if (model.getDuration(b) != 0) {
+                continue;
+            }
+            for (int a = 0; a < numActivities; a++) {
+                if (a != b && start[a] <= start[b] && start[a] + model.getDuration(a) > start[b]
+                        && haveSameResourceAssigned(a, b)) {
+                    conflictsFound += model.getNumSkills();
+                }
+            }
+        }
+        return conflictsFound;
+    }
+
+    /**
+     * Compares resources of the activities skill by skill, until a skill which one of them does not require.
+     */
+    private boolean haveSameResourceAssigned(int a, int b) {
+        for (int k = 0; k < model.getNumSkills(); k++) {
+            int endA = model.getEndSlot(a, k);
+            int endB = model.getEndSlot(b, k);
+            if (model.getFirstSlot(a, k) == endA || model.getFirstSlot(b, k) == endB) {
+                return false;
+            }
+            for (int s = model.getFirstSlot(a, k); s < endA; s++) {
+                for (int t = model.getFirstSlot(b, k); t < endB; t++) {
+                    if (slotResource[s] == slotResource[t]) {
+                        return true;
+                    }
+                }
+            }
         }
         return false;
     }
@@ -97,8 +151,8 @@ public class ConstraintValidation {
      */
     private int validatePrecedenceRelationConstraint() {
         int conflictsFound = 0;
-        for (Activity activity : schedule.getActivities()) {
-            if (activity.getStart() < schedule.getEarliestTime(activity)) {
+        for (int a = 0; a < model.getNumActivities(); a++) {
+            if (start[a] < model.getEarliestTime(a, start)) {
                 conflictsFound++;
             }
         }
@@ -110,14 +164,9 @@ public class ConstraintValidation {
      */
     private int validateSkillConstraint() {
         int conflictsFound = 0;
-        for (Activity activity : schedule.getActivities()) {
-            RequiredSkill[] requiredSkills = activity.getRequiredSkills();
-            for (RequiredSkill requiredSkill : requiredSkills) {
-                for (Skill skill : requiredSkill.getSkills()) {
-                    if (!schedule.getResource(skill.getResourceId()).isCapableOf(skill.getType())) {
-                        conflictsFound++;
-                    }
-                }
+        for (int s = 0; s < model.getNumSlots(); s++) {
+            if (slotResource[s] >= 0 && !model.masters(slotResource[s], model.getSlotSkill(s))) {
+                conflictsFound++;
             }
         }
         return conflictsFound;
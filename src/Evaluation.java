@@ -14,14 +14,8 @@ public class Evaluation {
      * time of all resources.
      */
     public int getDuration() {
-        int result = 0;
-        Resource[] resources = schedule.getResources();
-        for (Resource r : resources) {
-            if (r.getFinish() > result) {
-                result = r.getFinish();
-            }
-        }
-        return result;
+        int[] finish = schedule.getResourceFinishTimes();
+        return Math.max(0, Kernels.max(finish, 0, finish.length));
     }
 
     /**
@@ -29,8 +23,8 @@ public class Evaluation {
      */
     public int getMaxDuration() {
         int duration = 0;
-        for (Activity t : schedule.getActivities()) {
-            duration += t.getDuration();
+        for (int activityDuration : schedule.getModel().getDurations()) {
+            duration += activityDuration;
         }
         return duration;
     }
@@ -1,10 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 
 /**
  * Performs GeneticAlgorithm to the MSPSP instance with default or given parameters.
  */
-public class GeneticAlgorithm {
+public class GeneticAlgorithm implements Solver {
 
     private static final int DEFAULT_POP_SIZE = 300;
     private static final int DEFAULT_GENERATIONS = 100;
@@ -17,9 +21,27 @@ public class GeneticAlgorithm {
     private double mutationProbability;
     private double crossoverProbability;
     private Population newPopulation;
+    private Population spare;
     private String filename;
+    private InstanceLoader instanceLoader;
     private Integer tournamentSize;
     private RandomAlgorithm randomAlgorithm;
+    private GreedyAlgorithm greedyAlgorithm;
+    private double greedySeedFraction;
+    private RandomStreams randomStreams;
+    private AdaptiveOperatorController adaptiveController;
+    private volatile Individual bestIndividual;
+    private volatile boolean stopRequested;
+    private CheckpointWriter checkpointWriter;
+    private int checkpointInterval;
+    private MemeticPhase memeticPhase;
+    private LowerBounds lowerBounds;
+    private final ThreadLocal<CrossoverBuffers> crossoverBuffers = ThreadLocal.withInitial(CrossoverBuffers::new);
+    private boolean offHeap;
+    private Schedule[] breedingSchedules;
+    private Population lastPopulation;
+    private BreedingPipeline pipeline;
+    private Population.Tally bredTally;
 
     /**
      * Constructor with parameters.
@@ -39,6 +61,8 @@ public class GeneticAlgorithm {
         this.tournamentSize = tournamentSize;
         this.filename = filename;
         this.randomAlgorithm = new RandomAlgorithm();
+        this.greedyAlgorithm = new GreedyAlgorithm();
+        this.randomStreams = new RandomStreams(System.nanoTime());
     }
 
     /**
@@ -52,6 +76,8 @@ public class GeneticAlgorithm {
         this.tournamentSize = DEFAULT_TOURNAMENT_SIZE;
         this.filename = filename;
         this.randomAlgorithm = new RandomAlgorithm();
+        this.greedyAlgorithm = new GreedyAlgorithm();
+        this.randomStreams = new RandomStreams(System.nanoTime());
     }
 
     /**
@@ -63,6 +89,13 @@ public class GeneticAlgorithm {
         return instanceLoader;
     }
 
+    /**
+     * Uses an instance loaded before instead of loading the file, e.g. one shared by several runs.
+     */
+    void useInstance(InstanceLoader instanceLoader) {
+        this.instanceLoader = instanceLoader;
+    }
+
     /**
      * Initializes individual with its instance of Schedule.
      */
@@ -71,24 +104,346 @@ public class GeneticAlgorithm {
     }
 
     /**
-     * Creates initial population with randomly created Schedule.
+     * Creates initial population with randomly created Schedule. The first greedySeedFraction
+     * of individuals are created by priority rule heuristics instead, taking the rules in turns.
      */
     Population initializePopulation() {
+        if (offHeap) {
+            return initializeStoredPopulation();
+        }
         ArrayList<Individual> individuals = new ArrayList<>();
         for (int i = 0; i < getPopSize(); i++) {
             Schedule initialSchedule = initializeSchedule();
-            randomAlgorithm.schedule(initialSchedule);
+            scheduleInitialIndividual(initialSchedule, i);
             individuals.add(initializeIndividual(initialSchedule));
         }
         return new Population(individuals, 0);
     }
 
-    private Schedule initializeSchedule() {
-        return new Schedule(loadInstance(filename));
+    /**
+     * Same as initializePopulation, with individuals scheduled in one schedule and stored off heap.
+     */
+    private Population initializeStoredPopulation() {
+        PopulationStore store = new PopulationStore(initializeSchedule(), getPopSize());
+        Schedule initialSchedule = store.newSchedule();
+        PopulationStore.Cursor cursor = store.cursor();
+        for (int i = 0; i < getPopSize(); i++) {
+            store.reset(initialSchedule);
+            scheduleInitialIndividual(initialSchedule, i);
+            cursor.at(i).store(initialSchedule);
+        }
+        return new Population(store, 0);
+    }
+
+    private void scheduleInitialIndividual(Schedule initialSchedule, int i) {
+        GreedyAlgorithm.PriorityRule[] rules = GreedyAlgorithm.PriorityRule.values();
+        int greedyIndividuals = (int) Math.round(greedySeedFraction * getPopSize());
+        SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.INITIALIZATION, 0, i);
+        if (i < rules.length && i < greedyIndividuals) {
+            greedyAlgorithm.schedule(initialSchedule, rules[i]);
+        } else if (i < greedyIndividuals) {
+            greedyAlgorithm.schedule(initialSchedule, rules[i % rules.length], random);
+        } else {
+            randomAlgorithm.schedule(initialSchedule, random);
+        }
+    }
+
+    /**
+     * Creates a schedule of the instance, which is loaded only once and shared by all schedules.
+     */
+    Schedule initializeSchedule() {
+        return new Schedule(getInstanceLoader());
+    }
+
+    private InstanceLoader getInstanceLoader() {
+        if (instanceLoader == null) {
+            instanceLoader = loadInstance(filename);
+        }
+        return instanceLoader;
     }
 
+    /**
+     * Creates the child's own schedule, so that changing it does not affect its parents.
+     */
     private Schedule reinitializeSchedule(Schedule schedule, Activity[] activities) {
-        return new Schedule(schedule, activities);
+        return schedule.copy(activities);
+    }
+
+    /**
+     * Population to breed the next generation into: one bred before from other parents with its individuals
+     * and schedules, which are overwritten, or null if there is none of the right size yet.
+     */
+    private Population reusablePopulation(Population parents) {
+        if (isReusable(spare, parents)) {
+            return spare;
+        }
+        return isReusable(newPopulation, parents) ? newPopulation : null;
+    }
+
+    private boolean isReusable(Population population, Population parents) {
+        return population != null && population != parents && population.size() == getPopSize()
+                && (population.getStore() == null) == (parents.getStore() == null);
+    }
+
+    /**
+     * Copy of the individual which does not change when its population is reused.
+     */
+    private static Individual copyOf(Individual individual) {
+        Schedule schedule = individual.getSchedule();
+        Individual copy = new Individual(schedule.copy(schedule.getActivities()));
+        copy.setDuration(individual.getDuration());
+        copy.setConflicts(individual.getConflicts());
+        return copy;
+    }
+
+    /**
+     * Evolves populations until any of the termination criteria is met and passes every evaluated
+     * population to the listener. Returns the best individual found.
+     */
+    @Override
+    public Individual run(TerminationCriteria termination, Consumer<Population> listener) {
+        if (offHeap && (memeticPhase != null || checkpointWriter != null || pipeline != null)) {
+            throw new IllegalStateException("Memetic search, checkpoints and pipelines need populations on the heap");
+        }
+        stopRequested = false;
+        bestIndividual = null;
+        termination.start();
+        termination.tightenLowerBound(getLowerBounds().getLowerBound());
+        long generationMark = Instrumentation.now();
+        long mark = Instrumentation.begin(Instrumentation.Phase.INITIALIZE_POPULATION);
+        Population population = initializePopulation();
+        Instrumentation.end(Instrumentation.Phase.INITIALIZE_POPULATION, mark);
+        evaluate(population, termination, listener);
+        Instrumentation.generation(population, generationMark);
+        return evolve(population, termination, listener);
+    }
+
+    /**
+     * Continues a run from the checkpoint file, giving the same results as the run which wrote it.
+     */
+    Individual resume(Path checkpointFile, TerminationCriteria termination, Consumer<Population> listener)
+            throws IOException {
+        stopRequested = false;
+        termination.start();
+        termination.tightenLowerBound(getLowerBounds().getLowerBound());
+        Population population = Checkpoint.read(checkpointFile, this, termination);
+        return evolve(population, termination, listener);
+    }
+
+    private Individual evolve(Population population, TerminationCriteria termination, Consumer<Population> listener) {
+        while (!stopRequested && !termination.shouldTerminate()) {
+            termination.nextGeneration();
+            long generationMark = Instrumentation.now();
+            long deadline = termination.getDeadline();
+            if (memeticPhase != null) {
+                memeticPhase.start(population, randomStreams, termination.getGeneration(), deadline);
+            }
+            Population bred = createNewPopulation(population, termination.getGeneration(), deadline);
+            if (bred != null && memeticPhase != null) {
+                memeticPhase.finish(bred);
+            }
+            if (bred == null || System.nanoTime() >= deadline) {
+                // out of time within the generation: it is dropped, so every generation kept is complete
+                if (memeticPhase != null) {
+                    memeticPhase.cancel();
+                }
+                bredTally = null;
+                termination.dropGeneration();
+                break;
+            }
+            population = bred;
+            evaluate(population, termination, listener);
+            Instrumentation.generation(population, generationMark);
+        }
+        if (checkpointWriter != null) {
+            checkpointWriter.close();
+        }
+        if (memeticPhase != null) {
+            memeticPhase.close();
+        }
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        lastPopulation = population;
+        return bestIndividual;
+    }
+
+    /**
+     * Continues from the last population of the previous run on the instance changed by the diff,
+     * see warmStart(List, InstanceDiff, TerminationCriteria, Consumer).
+     */
+    public Individual warmStart(InstanceDiff diff, TerminationCriteria termination, Consumer<Population> listener) {
+        if (lastPopulation == null || lastPopulation.getStore() != null) {
+            throw new IllegalStateException("No population of a previous run on the heap to warm start from");
+        }
+        List<Schedule> previous = new ArrayList<>();
+        for (Individual individual : lastPopulation.getIndividuals()) {
+            previous.add(individual.getSchedule());
+        }
+        return warmStart(previous, diff, termination, listener);
+    }
+
+    /**
+     * Solves the instance changed by the diff starting from schedules of the current instance, e.g. the last
+     * population or only the best schedule of a previous run. The individuals seeded by priority rules are
+     * created as in run, the previous schedules repaired by ScheduleRepair follow and the rest is random.
+     * The precedence analysis of the current instance is reused where the diff leaves it valid.
+     * The algorithm stays on the changed instance, so warm starts can follow each other.
+     */
+    public Individual warmStart(List<Schedule> previous, InstanceDiff diff, TerminationCriteria termination,
+                                Consumer<Population> listener) {
+        if (offHeap || checkpointWriter != null) {
+            throw new IllegalStateException("Warm start needs populations on the heap and no checkpoints");
+        }
+        useInstance(diff.apply(getInstanceLoader()));
+        lowerBounds = null;
+        newPopulation = null;
+        spare = null;
+        lastPopulation = null;
+        stopRequested = false;
+        bestIndividual = null;
+        termination.start();
+        termination.tightenLowerBound(getLowerBounds().getLowerBound());
+        long generationMark = Instrumentation.now();
+        long mark = Instrumentation.begin(Instrumentation.Phase.INITIALIZE_POPULATION);
+        Population population = repairPopulation(previous);
+        Instrumentation.end(Instrumentation.Phase.INITIALIZE_POPULATION, mark);
+        evaluate(population, termination, listener);
+        Instrumentation.generation(population, generationMark);
+        return evolve(population, termination, listener);
+    }
+
+    private Population repairPopulation(List<Schedule> previous) {
+        ScheduleRepair repair = new ScheduleRepair(getInstanceLoader().getModel());
+        int greedyIndividuals = (int) Math.round(greedySeedFraction * getPopSize());
+        ArrayList<Individual> individuals = new ArrayList<>();
+        for (int i = 0; i < getPopSize(); i++) {
+            Schedule schedule = initializeSchedule();
+            if (i >= greedyIndividuals && i - greedyIndividuals < previous.size()) {
+                repair.repair(previous.get(i - greedyIndividuals), schedule);
+            } else {
+                scheduleInitialIndividual(schedule, i);
+            }
+            individuals.add(initializeIndividual(schedule));
+        }
+        return new Population(individuals, 0);
+    }
+
+    private void evaluate(Population population, TerminationCriteria termination, Consumer<Population> listener) {
+        if (bredTally != null) {
+            completeEvaluation(population);
+        } else {
+            long mark = Instrumentation.begin(Instrumentation.Phase.EVALUATE_DURATION);
+            population.evaluateDuration();
+            Instrumentation.end(Instrumentation.Phase.EVALUATE_DURATION, mark);
+            mark = Instrumentation.begin(Instrumentation.Phase.EVALUATE_CONSTRAINTS);
+            population.evaluateConstraints();
+            Instrumentation.end(Instrumentation.Phase.EVALUATE_CONSTRAINTS, mark);
+        }
+        population.setLowerBounds(getLowerBounds());
+        updateOperatorStatistics(population);
+        Individual best = population.getBestIndividual();
+        if (bestIndividual == null || Population.FITNESS_ORDER.compare(best, bestIndividual) < 0) {
+            bestIndividual = copyOf(best);
+        }
+        termination.update(population.size(), bestIndividual);
+        listener.accept(population);
+        if (checkpointWriter != null && termination.getGeneration() % checkpointInterval == 0) {
+            checkpointWriter.submit(Checkpoint.write(this, population, termination));
+        }
+    }
+
+    /**
+     * Evaluates the children the pipeline left to the memetic phase and sets the statistics of the population.
+     */
+    private void completeEvaluation(Population population) {
+        ArrayList<Individual> individuals = population.getIndividuals();
+        double maxDuration = new Evaluation(individuals.get(0).getSchedule()).getMaxDuration();
+        int replaced = memeticPhase != null ? Math.min(memeticPhase.getEliteCount(), individuals.size()) : 0;
+        for (int i = individuals.size() - replaced; i < individuals.size(); i++) {
+            bredTally.evaluate(individuals.get(i), maxDuration);
+        }
+        population.setStatistics(bredTally);
+        bredTally = null;
+    }
+
+    /**
+     * Lower bounds of the instance, computed once per algorithm.
+     */
+    LowerBounds getLowerBounds() {
+        if (lowerBounds == null) {
+            lowerBounds = getInstanceLoader().getLowerBounds();
+        }
+        return lowerBounds;
+    }
+
+    /**
+     * Improves copies of the eliteCount best individuals by local search in parallel with breeding,
+     * each search sampling at most given number of candidate moves, on given number of threads.
+     */
+    void enableMemetic(int eliteCount, long candidates, int threads) {
+        this.memeticPhase = new MemeticPhase(eliteCount, candidates, threads);
+    }
+
+    /**
+     * Breeds every generation on breeder threads into a queue of given capacity, from which evaluator threads
+     * evaluate the children right away. Runs give the same results as without. Not available off heap.
+     */
+    void enablePipeline(int breeders, int evaluators, int capacity) {
+        this.pipeline = new BreedingPipeline(breeders, evaluators, capacity);
+    }
+
+    /**
+     * Keeps populations off heap in a PopulationStore, for populations too large for the heap.
+     * Runs give the same results as with populations on the heap. Not available with memetic search and checkpoints.
+     */
+    void enableOffHeapPopulation() {
+        this.offHeap = true;
+    }
+
+    /**
+     * Writes a checkpoint to given file every interval generations, in the background.
+     */
+    void enableCheckpoints(Path checkpointFile, int interval) {
+        this.checkpointWriter = new CheckpointWriter(checkpointFile);
+        this.checkpointInterval = interval;
+    }
+
+    /**
+     * Asks a running solve to stop after the current generation.
+     */
+    @Override
+    public void stop() {
+        stopRequested = true;
+    }
+
+    @Override
+    public Individual getBestIndividual() {
+        return bestIndividual;
+    }
+
+    void setBestIndividual(Individual bestIndividual) {
+        this.bestIndividual = bestIndividual;
+    }
+
+    AdaptiveOperatorController getAdaptiveController() {
+        return adaptiveController;
+    }
+
+    /**
+     * Lets operator rates and tournament size be adapted during the run instead of staying fixed.
+     */
+    void enableAdaptiveOperators() {
+        this.adaptiveController = new AdaptiveOperatorController();
+    }
+
+    /**
+     * Feeds the evaluated population back to the adaptive controller, if enabled.
+     */
+    void updateOperatorStatistics(Population population) {
+        if (adaptiveController != null) {
+            adaptiveController.update(population);
+        }
     }
 
     void validateSchedule(Schedule schedule) {
@@ -96,112 +451,255 @@ public class GeneticAlgorithm {
         validator.validate();
     }
 
-    Population createNewPopulation(Population population, int id) {
-        setNewPopulation(new Population(id));
-        int currentIndividual = 0;
-
-        while (currentIndividual < getPopSize()) {
-            Individual individual = select(population);
-            Activity[] activities = individual.getSchedule().getActivities();
-            Activity[] childActivities = null;
-
-            if (shouldDoCrossover()) {
-                Individual parent2 = select(population);
-                Activity[] parent2activities = parent2.getSchedule().getActivities();
-                childActivities = crossover(activities, parent2activities);
-            }
+    /**
+     * Breeds the next generation. After the first generations, it is written into the population bred
+     * two generations ago, reusing its individuals and schedules, so breeding allocates (almost) nothing.
+     * With a pipeline, children are evaluated while they are bred, except the last ones which the memetic
+     * phase may replace; evaluate completes the evaluation.
+     * Returns null if breeding reaches the deadline (System.nanoTime()) before the generation is complete.
+     */
+    Population createNewPopulation(Population population, int id, long deadline) {
+        if (population.getStore() != null) {
+            return createNewStoredPopulation(population, id, deadline);
+        }
+        Population reused = reusablePopulation(population);
+        spare = population;
+        selectOperatorArms(id);
+
+        if (pipeline != null) {
+            setNewPopulation(reused != null ? reused
+                    : new Population(new ArrayList<>(Collections.nCopies(getPopSize(), null)), id));
+            newPopulation.setId(id);
+            ArrayList<Individual> children = newPopulation.getIndividuals();
+            int replaced = memeticPhase != null ? Math.min(memeticPhase.getEliteCount(), getPopSize()) : 0;
+            double maxDuration = new Evaluation(population.getIndividuals().get(0).getSchedule()).getMaxDuration();
+            bredTally = pipeline.run(getPopSize(), getPopSize() - replaced, currentIndividual -> {
+                Individual child = breed(population, reused, id, currentIndividual);
+                if (reused == null) {
+                    children.set(currentIndividual, child);
+                }
+                return child;
+            }, maxDuration, deadline);
+            return bredTally != null ? newPopulation : null;
+        }
 
-            if (childActivities == null) {
-                childActivities = activities;
+        setNewPopulation(reused != null ? reused : new Population(id));
+        newPopulation.setId(id);
+        for (int currentIndividual = 0; currentIndividual < getPopSize(); currentIndividual++) {
+            if (System.nanoTime() >= deadline) {
+                return null;
             }
+            Individual child = breed(population, reused, id, currentIndividual);
+            if (reused == null) {
+                newPopulation.addNewIndividual(child);
+            }
+        }
+        return newPopulation;
+    }
+
+    /**
+     * createNewPopulation without a deadline.
+     */
+    Population createNewPopulation(Population population, int id) {
+        return createNewPopulation(population, id, Long.MAX_VALUE);
+    }
+
+    /**
+     * Breeds the child at given position from the parents, into the individual at that position of the reused
+     * population or into a new individual. It can be called for different positions in parallel.
+     */
+    private Individual breed(Population population, Population reused, int id, int currentIndividual) {
+        // independent streams per operator, derived from the position of the child only
+        SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.BREEDING, id, currentIndividual);
+        SplittableRandom selectionRandom = random.split();
+        SplittableRandom crossoverRandom = random.split();
+        SplittableRandom mutationRandom = random.split();
+
+        long mark = Instrumentation.begin(Instrumentation.Phase.SELECT);
+        Individual individual = select(population, selectionRandom);
+        Instrumentation.end(Instrumentation.Phase.SELECT, mark);
+        Activity[] activities = individual.getSchedule().getActivities();
+        Activity[] childActivities = null;
+
+        if (shouldDoCrossover(crossoverRandom)) {
+            mark = Instrumentation.begin(Instrumentation.Phase.SELECT);
+            Individual parent2 = select(population, selectionRandom);
+            Instrumentation.end(Instrumentation.Phase.SELECT, mark);
+            Activity[] parent2activities = parent2.getSchedule().getActivities();
+            mark = Instrumentation.begin(Instrumentation.Phase.CROSSOVER);
+            childActivities = crossover(activities, parent2activities, crossoverRandom);
+            Instrumentation.end(Instrumentation.Phase.CROSSOVER, mark);
+        }
+
+        if (childActivities == null) {
+            childActivities = activities;
+        }
+
+        mark = Instrumentation.begin(Instrumentation.Phase.REINITIALIZE_SCHEDULE);
+        Individual child;
+        if (reused != null) {
+            child = reused.getIndividuals().get(currentIndividual);
+            child.getSchedule().copyFrom(childActivities, individual.getSchedule());
+        } else {
+            child = initializeIndividual(reinitializeSchedule(individual.getSchedule(), childActivities));
+        }
+        Instrumentation.end(Instrumentation.Phase.REINITIALIZE_SCHEDULE, mark);
 
-            if (shouldDoMutation()) {
-                mutate(childActivities);
+        if (shouldDoMutation(mutationRandom)) {
+            mark = Instrumentation.begin(Instrumentation.Phase.MUTATE);
+            mutate(child.getSchedule().getActivities(), mutationRandom);
+            Instrumentation.end(Instrumentation.Phase.MUTATE, mark);
+        }
+        return child;
+    }
+
+    /**
+     * createNewPopulation for populations in a store: parents are loaded into schedules, the child is bred
+     * by the same operators from the same random streams and stored into a record of the next store.
+     */
+    private Population createNewStoredPopulation(Population population, int id, long deadline) {
+        PopulationStore parents = population.getStore();
+        Population reused = reusablePopulation(population);
+        spare = population;
+        setNewPopulation(reused != null ? reused
+                : new Population(new PopulationStore(initializeSchedule(), getPopSize()), id));
+        newPopulation.setId(id);
+        selectOperatorArms(id);
+
+        if (breedingSchedules == null) {
+            breedingSchedules = new Schedule[]{parents.newSchedule(), parents.newSchedule(), parents.newSchedule()};
+        }
+        Schedule parent1 = breedingSchedules[0];
+        Schedule parent2 = breedingSchedules[1];
+        Schedule child = breedingSchedules[2];
+        PopulationStore.Cursor candidate = parents.cursor();
+        PopulationStore.Cursor winner = parents.cursor();
+        PopulationStore.Cursor childCursor = newPopulation.getStore().cursor();
+
+        for (int currentIndividual = 0; currentIndividual < getPopSize(); currentIndividual++) {
+            if (System.nanoTime() >= deadline) {
+                return null;
+            }
+            SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.BREEDING, id, currentIndividual);
+            SplittableRandom selectionRandom = random.split();
+            SplittableRandom crossoverRandom = random.split();
+            SplittableRandom mutationRandom = random.split();
+
+            long mark = Instrumentation.begin(Instrumentation.Phase.SELECT);
+            Selection.tournament(parents, getTournamentSize(), candidate, winner, selectionRandom);
+            winner.load(parent1);
+            Instrumentation.end(Instrumentation.Phase.SELECT, mark);
+            Activity[] childActivities = parent1.getActivities();
+
+            if (shouldDoCrossover(crossoverRandom)) {
+                mark = Instrumentation.begin(Instrumentation.Phase.SELECT);
+                Selection.tournament(parents, getTournamentSize(), candidate, winner, selectionRandom);
+                winner.load(parent2);
+                Instrumentation.end(Instrumentation.Phase.SELECT, mark);
+                mark = Instrumentation.begin(Instrumentation.Phase.CROSSOVER);
+                childActivities = crossover(parent1.getActivities(), parent2.getActivities(), crossoverRandom);
+                Instrumentation.end(Instrumentation.Phase.CROSSOVER, mark);
             }
 
-            Schedule schedule = reinitializeSchedule(individual.getSchedule(), childActivities);
+            mark = Instrumentation.begin(Instrumentation.Phase.REINITIALIZE_SCHEDULE);
+            child.copyFrom(childActivities, parent1);
+            Instrumentation.end(Instrumentation.Phase.REINITIALIZE_SCHEDULE, mark);
 
-            newPopulation.addNewIndividual(initializeIndividual(schedule));
-            currentIndividual++;
+            if (shouldDoMutation(mutationRandom)) {
+                mark = Instrumentation.begin(Instrumentation.Phase.MUTATE);
+                mutate(child.getActivities(), mutationRandom);
+                Instrumentation.end(Instrumentation.Phase.MUTATE, mark);
+            }
+            childCursor.at(currentIndividual).store(child);
         }
         return newPopulation;
     }
 
+    private void selectOperatorArms(int id) {
+        if (adaptiveController != null) {
+            adaptiveController.selectArms(randomStreams.stream(RandomStreams.Purpose.OPERATORS, id, 0));
+            setCrossoverProbability(adaptiveController.getCrossoverProbability());
+            setMutationProbability(adaptiveController.getMutationProbability());
+            setTournamentSize(adaptiveController.getTournamentSize());
+        }
+    }
+
     /**
      * Selection step: select winner with tournament selection
      */
-    Individual select(Population population) {
-        Selection selection = new Selection(getTournamentSize(), population);
-        return selection.tournament();
+    Individual select(Population population, RandomGenerator random) {
+        return Selection.tournament(population, getTournamentSize(), Population.FITNESS_ORDER, random);
     }
 
     /**
-     * Recombination step: generate child from two parent individuals with crossover method
+     * Recombination step: generate child from two parent individuals with crossover method.
+     * The child is written into an array which the next call on the same thread reuses.
      */
-    Activity[] crossover(Activity[] parent1activities, Activity[] parent2activities) {
-        Random generator = new Random();
-        int crossoverPoint = generator.nextInt(parent1activities.length);
-
-        Activity[] childActivities = new Activity[parent1activities.length];
+    Activity[] crossover(Activity[] parent1activities, Activity[] parent2activities, RandomGenerator random) {
+        int crossoverPoint = random.nextInt(parent1activities.length);
+
+        CrossoverBuffers buffers = crossoverBuffers.get();
+        if (buffers.childActivities == null || buffers.childActivities.length != parent1activities.length) {
+            buffers.childActivities = new Activity[parent1activities.length];
+            buffers.parentActivities = new Activity[parent1activities.length];
+            buffers.added = new boolean[parent1activities.length];
+        }
+        Activity[] childActivities = buffers.childActivities;
+        Activity[] parentActivities = buffers.parentActivities;
+        boolean[] added = buffers.added;
+        Arrays.fill(added, false);
 
-        Set<Integer> alreadyAddedActivitiesById = new HashSet<>();
         int currentIndex = 0;
         while (currentIndex < crossoverPoint) {
             Activity activity = parent1activities[currentIndex];
             childActivities[currentIndex] = activity;
-            alreadyAddedActivitiesById.add(activity.getId());
+            added[activity.getIndex()] = true;
             currentIndex++;
         }
 
         while (currentIndex < childActivities.length) {
             Activity activity = parent2activities[currentIndex];
-            if (!alreadyAddedActivitiesById.contains(activity.getId())) {
+            if (!added[activity.getIndex()]) {
                 childActivities[currentIndex] = activity;
-                alreadyAddedActivitiesById.add(activity.getId());
+                added[activity.getIndex()] = true;
             } else {
                 childActivities[currentIndex] = null;
             }
             currentIndex++;
         }
 
+        // missing activities are taken from the first parent, in order of their ids
+        for (Activity activity : parent1activities) {
+            parentActivities[activity.getIndex()] = activity;
+        }
+        int missing = 0;
         for (int i = 0; i < childActivities.length; i++) {
-            Activity currentActivity = childActivities[i];
-            if (currentActivity == null) {
-                childActivities[i] = findMissingActivityInParentArray(childActivities, parent1activities);
+            if (childActivities[i] == null) {
+                while (added[missing]) {
+                    missing++;
+                }
+                childActivities[i] = parentActivities[missing];
+                added[missing] = true;
             }
         }
         return childActivities;
     }
 
     /**
-     * Populate missing activities in the array by taking the activity from one of the parents
+     * Arrays of crossover reused by the calls on a thread.
      */
-    private Activity findMissingActivityInParentArray(Activity[] childActivities, Activity[] parent1activities) {
-        HashMap<Integer, Activity> childActivitiesById = new HashMap<>();
-        for (Activity activity : childActivities) {
-            if (activity != null) {
-                childActivitiesById.put(activity.getId(), activity);
-            }
-        }
-        for (int i = 1; i < childActivities.length + 1; i++) {
-            if (!childActivitiesById.containsKey(i)) {
-                for (Activity activity : parent1activities) {
-                    if (activity.getId() == i) {
-                        return activity;
-                    }
-                }
-            }
-        }
-        return null;
+    private static final class CrossoverBuffers {
+        private Activity[] childActivities;
+        private Activity[] parentActivities;
+        private boolean[] added;
     }
 
     /**
      * Mutatation step: mutate one activity to have different starting time
      */
-    void mutate(Activity[] activities) {
+    void mutate(Activity[] activities, RandomGenerator random) {
 
-        Random generator = new Random();
-        int positionToMutate = generator.nextInt(activities.length - 1);
+        int positionToMutate = random.nextInt(activities.length - 1);
         int positionToMutateWith = positionToMutate + 1;
 
         // try with swapping two start times of activities
@@ -217,12 +715,12 @@ public class GeneticAlgorithm {
         activityToMutate.setStart(activityToMutate.getStart() + 1);
     }
 
-    boolean shouldDoCrossover() {
-        return Math.random() > 1.0 - crossoverProbability;
+    boolean shouldDoCrossover(RandomGenerator random) {
+        return random.nextDouble() < crossoverProbability;
     }
 
-    boolean shouldDoMutation() {
-        return Math.random() > 1.0 - mutationProbability;
+    boolean shouldDoMutation(RandomGenerator random) {
+        return random.nextDouble() < mutationProbability;
     }
 
     /**
@@ -236,10 +734,45 @@ public class GeneticAlgorithm {
         this.popSize = popSize;
     }
 
+    public long getSeed() {
+        return randomStreams.getSeed();
+    }
+
+    /**
+     * Sets the root seed, runs with the same seed and parameters give identical results.
+     */
+    public void setSeed(long seed) {
+        this.randomStreams = new RandomStreams(seed);
+    }
+
+    public double getGreedySeedFraction() {
+        return greedySeedFraction;
+    }
+
+    public void setGreedySeedFraction(double greedySeedFraction) {
+        this.greedySeedFraction = greedySeedFraction;
+    }
+
     public int getGenerations() {
         return generations;
     }
 
+    public double getMutationProbability() {
+        return mutationProbability;
+    }
+
+    public void setMutationProbability(double mutationProbability) {
+        this.mutationProbability = mutationProbability;
+    }
+
+    public double getCrossoverProbability() {
+        return crossoverProbability;
+    }
+
+    public void setCrossoverProbability(double crossoverProbability) {
+        this.crossoverProbability = crossoverProbability;
+    }
+
     public Integer getTournamentSize() {
         return tournamentSize;
     }
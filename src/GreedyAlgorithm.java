@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Constructive priority rule heuristics: builds a feasible schedule in a single pass of the serial
+ * schedule generation scheme. The eligible activity (all predecessors scheduled) with the best priority
+ * is scheduled next, every skill unit it requires gets the capable resource which is free the earliest
+ * (as far as a matching of units to resources allows),
+ * and the activity starts when its predecessors and all of its resources have finished.
+ */
+public class GreedyAlgorithm {
+
+    private static final double RANDOM_PICK_PROBABILITY = 0.2;
+
+    private final SkillMatching matching = new SkillMatching();
+
+    /**
+     * Activity priority rules, lower key is scheduled first.
+     */
+    enum PriorityRule {
+        /** Latest finish time from the backward pass. */
+        LFT,
+        /** Most total (direct and indirect) successors. */
+        MTS,
+        /** Most skill units required. */
+        MOST_SKILLS
+    }
+
+    /**
+     * Schedules activities in order given by the priority rule.
+     */
+    void schedule(Schedule schedule, PriorityRule rule) {
+        schedule(schedule, rule, null);
+    }
+
+    /**
+     * Schedules activities in order given by the priority rule. If random generator is given,
+     * a random eligible activity is picked instead of the best one now and then, which gives
+     * different schedules for seeding a population.
+     */
+    void schedule(Schedule schedule, PriorityRule rule, RandomGenerator random) {
+        Activity[] activities = schedule.getActivities();
+        int n = activities.length;
+        HashMap<Integer, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            indexById.put(activities[i].getId(), i);
+        }
+        List<List<Integer>> successors = getSuccessors(activities, indexById);
+        long[] priority = getPriorities(activities, successors, rule);
+
+        int[] remainingPredecessors = new int[n];
+        for (int i = 0; i < n; i++) {
+            Set<Integer> predecessors = activities[i].getPredecessors();
+            remainingPredecessors[i] = predecessors == null ? 0 : predecessors.size();
+        }
+        List<Integer> eligible = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (remainingPredecessors[i] == 0) {
+                eligible.add(i);
+            }
+        }
+
+        Activity[] order = new Activity[n];
+        int scheduled = 0;
+        while (!eligible.isEmpty()) {
+            int position = pick(eligible, priority, random);
+            int index = eligible.remove(position);
+            Activity activity = activities[index];
+            scheduleActivity(schedule, activity);
+            order[scheduled++] = activity;
+            for (int successor : successors.get(index)) {
+                if (--remainingPredecessors[successor] == 0) {
+                    eligible.add(successor);
+                }
+            }
+        }
+        if (scheduled == n) {
+            schedule.setActivities(order);
+        }
+    }
+
+    private int pick(List<Integer> eligible, long[] priority, RandomGenerator random) {
+        if (random != null && random.nextDouble() < RANDOM_PICK_PROBABILITY) {
+            return random.nextInt(eligible.size());
+        }
+        int best = 0;
+        for (int i = 1; i < eligible.size(); i++) {
+            if (priority[eligible.get(i)] < priority[eligible.get(best)]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Starts the activity after its predecessors, staffs its skill units by a matching in which every unit
+     * prefers the capable resource with the earliest finish, and delays the start until all assigned resources are free.
+     */
+    private void scheduleActivity(Schedule schedule, Activity activity) {
+        activity.setStart(schedule.getEarliestTime(activity));
+        Resource[] resources = schedule.getResources();
+        List<Skill> slots = new ArrayList<>();
+        for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
+            if (requiredSkill.getRequired() > 0) {
+                slots.addAll(Arrays.asList(requiredSkill.getSkills()));
+            }
+        }
+        if (slots.isEmpty()) {
+            return;
+        }
+        Integer[] byFinish = new Integer[resources.length];
+        for (int r = 0; r < resources.length; r++) {
+            byFinish[r] = r;
+        }
+        Arrays.sort(byFinish, Comparator.comparingInt(r -> resources[r].getFinish()));
+        int[] offset = new int[slots.size() + 1];
+        int[] adjacency = new int[slots.size() * resources.length];
+        for (int s = 0; s < slots.size(); s++) {
+            offset[s + 1] = offset[s];
+            for (int r : byFinish) {
+                if (resources[r].isCapableOf(slots.get(s).getType())) {
+                    adjacency[offset[s + 1]++] = r;
+                }
+            }
+        }
+        matching.match(slots.size(), resources.length, offset, adjacency);
+
+        List<Resource> assignedResources = new ArrayList<>();
+        int[] slotMatch = matching.getSlotMatch();
+        for (int s = 0; s < slots.size(); s++) {
+            if (slotMatch[s] >= 0) {
+                Resource resource = resources[slotMatch[s]];
+                schedule.assign(activity, resource, slots.get(s));
+                assignedResources.add(resource);
+            }
+        }
+        for (Resource resource : assignedResources) {
+            if (resource.getFinish() >= activity.getStart()) {
+                activity.setStart(resource.getFinish() + 1);
+            }
+        }
+        for (Resource resource : assignedResources) {
+            resource.setFinish(activity.getStart() + activity.getDuration());
+        }
+    }
+
+    private List<List<Integer>> getSuccessors(Activity[] activities, HashMap<Integer, Integer> indexById) {
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int i = 0; i < activities.length; i++) {
+            successors.add(new ArrayList<>());
+        }
+        for (int i = 0; i < activities.length; i++) {
+            Set<Integer> predecessors = activities[i].getPredecessors();
+            if (predecessors != null) {
+                for (int p : predecessors) {
+                    successors.get(indexById.get(p)).add(i);
+                }
+            }
+        }
+        return successors;
+    }
+
+    private long[] getPriorities(Activity[] activities, List<List<Integer>> successors, PriorityRule rule) {
+        int n = activities.length;
+        long[] latestFinish = getLatestFinishTimes(activities, successors);
+        long[] priority = new long[n];
+        for (int i = 0; i < n; i++) {
+            switch (rule) {
+                case MTS:
+                    priority[i] = -countAllSuccessors(i, successors, new boolean[n]);
+                    break;
+                case MOST_SKILLS:
+                    int units = 0;
+                    for (RequiredSkill requiredSkill : activities[i].getRequiredSkills()) {
+                        units += requiredSkill.getRequired();
+                    }
+                    priority[i] = -units;
+                    break;
+                default:
+                    priority[i] = latestFinish[i];
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * Backward pass: latest finish of every activity relative to the end of the project.
+     */
+    private long[] getLatestFinishTimes(Activity[] activities, List<List<Integer>> successors) {
+        int n = activities.length;
+        long[] latestFinish = new long[n];
+        boolean[] done = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            computeLatestFinish(i, activities, successors, latestFinish, done);
+        }
+        return latestFinish;
+    }
+
+    private long computeLatestFinish(int i, Activity[] activities, List<List<Integer>> successors,
+                                     long[] latestFinish, boolean[] done) {
+        if (!done[i]) {
+            long finish = 0;
+            for (int successor : successors.get(i)) {
+                long successorStart = computeLatestFinish(successor, activities, successors, latestFinish, done)
+                        - activities[successor].getDuration() - 1;
+                finish = Math.min(finish, successorStart);
+            }
+            latestFinish[i] = finish;
+            done[i] = true;
+        }
+        return latestFinish[i];
+    }
+
+    private int countAllSuccessors(int i, List<List<Integer>> successors, boolean[] visited) {
+        int count = 0;
+        for (int successor : successors.get(i)) {
+            if (!visited[successor]) {
+                visited[successor] = true;
+                count += 1 + countAllSuccessors(successor, successors, visited);
+            }
+        }
+        return count;
+    }
+}
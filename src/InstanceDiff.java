@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Incremental change of an instance: durations of activities edited, resources removed, precedences added.
+ * Activities and skill requirements stay, so schedules of the instance can be repaired for the changed one
+ * by ScheduleRepair. A removed resource keeps its id but masters no skill any more.
+ * <pre>
+ *     InstanceDiff diff = new InstanceDiff().setDuration(5, 7).removeResource(3).addPrecedence(2, 9);
+ * </pre>
+ */
+public class InstanceDiff {
+
+    private final Map<Integer, Integer> durations = new LinkedHashMap<>();
+    private final Set<Integer> removedResources = new LinkedHashSet<>();
+    private final List<int[]> precedences = new ArrayList<>();
+
+    /**
+     * Sets duration of the activity with given id.
+     */
+    public InstanceDiff setDuration(int activityId, int duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Negative duration " + duration);
+        }
+        durations.put(activityId, duration);
+        return this;
+    }
+
+    /**
+     * Removes the resource with given id.
+     */
+    public InstanceDiff removeResource(int resourceId) {
+        removedResources.add(resourceId);
+        return this;
+    }
+
+    /**
+     * Makes the activity with id successorId start after the one with id predecessorId.
+     */
+    public InstanceDiff addPrecedence(int predecessorId, int successorId) {
+        precedences.add(new int[]{predecessorId, successorId});
+        return this;
+    }
+
+    boolean changesDurations() {
+        return !durations.isEmpty();
+    }
+
+    boolean changesPrecedences() {
+        return !precedences.isEmpty();
+    }
+
+    /**
+     * The instance changed by this diff. Its precedence analysis is derived from the one of the given instance.
+     * The instance bound (mint) is kept only if no duration gets shorter, as the other changes cannot shorten
+     * the optimal makespan; maxt grows by the added durations.
+     */
+    InstanceLoader apply(InstanceLoader instanceLoader) {
+        ProblemModel model = instanceLoader.getModel();
+        int numActivities = model.getNumActivities();
+        int numSkills = model.getNumSkills();
+        int numResources = model.getNumResources();
+
+        int[] duration = model.getDurations().clone();
+        boolean shortened = false;
+        int added = 0;
+        for (Map.Entry<Integer, Integer> entry : durations.entrySet()) {
+            int a = checkActivity(entry.getKey(), numActivities);
+            shortened |= entry.getValue() < duration[a];
+            added += Math.max(0, entry.getValue() - duration[a]);
+            duration[a] = entry.getValue();
+        }
+
+        int[][] required = new int[numActivities][numSkills];
+        for (int a = 0; a < numActivities; a++) {
+            for (int k = 0; k < numSkills; k++) {
+                required[a][k] = model.getRequired(a, k);
+            }
+        }
+        boolean[][] mastery = new boolean[numResources][numSkills];
+        for (int r = 0; r < numResources; r++) {
+            for (int k = 0; k < numSkills; k++) {
+                mastery[r][k] = model.masters(r, k);
+            }
+        }
+        for (int r : removedResources) {
+            if (r < 0 || r >= numResources) {
+                throw new IllegalArgumentException("No resource " + r);
+            }
+            mastery[r] = new boolean[numSkills];
+        }
+
+        HashMap<Integer, Set<Integer>> predecessorIds = new HashMap<>();
+        for (int a = 0; a < numActivities; a++) {
+            if (model.getPredecessorIds(a) != null) {
+                predecessorIds.put(a + 1, new LinkedHashSet<>(model.getPredecessorIds(a)));
+            }
+        }
+        for (int[] precedence : precedences) {
+            checkActivity(precedence[0], numActivities);
+            checkActivity(precedence[1], numActivities);
+            if (precedence[0] == precedence[1] || reaches(predecessorIds, precedence[0], precedence[1])) {
+                throw new IllegalArgumentException("Precedence " + precedence[0] + " -> " + precedence[1]
+                        + " makes a cycle");
+            }
+            predecessorIds.computeIfAbsent(precedence[1], id -> new LinkedHashSet<>()).add(precedence[0]);
+        }
+
+        ProblemModel changed = new ProblemModel(shortened ? 0 : model.getMinMakespan(),
+                model.getMaxMakespan() + added, duration, required, mastery, predecessorIds);
+        return new InstanceLoader(instanceLoader.getFilename(), changed, predecessorIds,
+                instanceLoader.getPrecedenceAnalysis().update(changed, this));
+    }
+
+    private static int checkActivity(int activityId, int numActivities) {
+        if (activityId < 1 || activityId > numActivities) {
+            throw new IllegalArgumentException("No activity " + activityId);
+        }
+        return activityId - 1;
+    }
+
+    /**
+     * True if activity with id "to" is a direct or indirect predecessor of the one with id "from".
+     */
+    private static boolean reaches(Map<Integer, Set<Integer>> predecessorIds, int from, int to) {
+        List<Integer> stack = new ArrayList<>();
+        Set<Integer> visited = new LinkedHashSet<>();
+        stack.add(from);
+        while (!stack.isEmpty()) {
+            int id = stack.remove(stack.size() - 1);
+            if (id == to) {
+                return true;
+            }
+            if (visited.add(id) && predecessorIds.containsKey(id)) {
+                stack.addAll(predecessorIds.get(id));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/**
+ * Generates random MSPSP instances in the .dzn format of the instances directory, for benchmarks on sizes
+ * beyond the n20 instances. Activity 1 and the last activity are dummy start and end activities.
+ * Every resource masters at least one skill and no activity needs more skill units than can be staffed,
+ * so every generated instance has a feasible schedule. The same arguments give the same instance.
+ * <p>
+ * Usage: InstanceGenerator activities resources seed output
+ */
+public class InstanceGenerator {
+
+    private static final int NUM_SKILLS = 4;
+    private static final int MAX_DURATION = 10;
+    private static final int MAX_UNITS = 3;
+    private static final double MASTERY_PROBABILITY = 0.4;
+    private static final double PRECEDENCE_PROBABILITY = 0.1;
+    private static final int PRECEDENCE_WINDOW = 10;
+
+    private final int activities;
+    private final int resources;
+    private final long seed;
+
+    /**
+     * Instance with given number of (non dummy) activities and resources.
+     */
+    public InstanceGenerator(int activities, int resources, long seed) {
+        this.activities = activities;
+        this.resources = resources;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        new InstanceGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Long.parseLong(args[2]))
+                .write(Paths.get(args[3]));
+    }
+
+    /**
+     * Writes the instance into a temporary file, which is deleted when the JVM exits.
+     */
+    public Path writeTemporary() throws IOException {
+        Path path = Files.createTempFile("inst_n" + activities + "_m" + resources + "_", ".dzn");
+        path.toFile().deleteOnExit();
+        write(path);
+        return path;
+    }
+
+    public void write(Path path) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int numActs = activities + 2;
+
+        boolean[][] mastery = new boolean[resources][NUM_SKILLS];
+        int[] capable = new int[NUM_SKILLS];
+        for (int r = 0; r < resources; r++) {
+            for (int k = 0; k < NUM_SKILLS; k++) {
+                mastery[r][k] = k == r % NUM_SKILLS || random.nextDouble() < MASTERY_PROBABILITY;
+                if (mastery[r][k]) {
+                    capable[k]++;
+                }
+            }
+        }
+
+        int[] duration = new int[numActs];
+        int[][] required = new int[numActs][NUM_SKILLS];
+        int sumDuration = 0;
+        for (int i = 1; i < numActs - 1; i++) {
+            duration[i] = 1 + random.nextInt(MAX_DURATION);
+            sumDuration += duration[i];
+            int units = 0;
+            int maxUnits = Math.min(MAX_UNITS, resources);
+            for (int k = 0; k < NUM_SKILLS && units < maxUnits; k++) {
+                if (random.nextInt(NUM_SKILLS) == 0 || k == NUM_SKILLS - 1 && units == 0) {
+                    required[i][k] = Math.min(Math.min(capable[k], maxUnits - units), 1 + random.nextInt(2));
+                    units += required[i][k];
+                }
+            }
+            // one resource can fill only one unit, keep units within what distinct resources can staff
+            while (!isStaffable(required[i], mastery)) {
+                for (int k = NUM_SKILLS - 1; k >= 0; k--) {
+                    if (required[i][k] > 0) {
+                        required[i][k]--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<int[]> precedences = new ArrayList<>();
+        boolean[] hasSuccessor = new boolean[numActs];
+        for (int i = 1; i < numActs - 1; i++) {
+            boolean hasPredecessor = false;
+            for (int p = Math.max(1, i - PRECEDENCE_WINDOW); p < i; p++) {
+                if (random.nextDouble() < PRECEDENCE_PROBABILITY) {
+                    precedences.add(new int[]{p, i});
+                    hasPredecessor = true;
+                    hasSuccessor[p] = true;
+                }
+            }
+            if (!hasPredecessor) {
+                precedences.add(new int[]{0, i});
+            }
+        }
+        for (int i = 1; i < numActs - 1; i++) {
+            if (!hasSuccessor[i]) {
+                precedences.add(new int[]{i, numActs - 1});
+            }
+        }
+
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(path))) {
+            pw.println("% generated, seed = " + seed);
+            pw.println();
+            pw.println("mint = 0;");
+            pw.println("maxt = " + sumDuration + ";");
+            pw.println();
+            pw.println("nActs = " + numActs + ";");
+            StringBuilder sb = new StringBuilder("dur = [");
+            for (int i = 0; i < numActs; i++) {
+                sb.append(duration[i]).append(i < numActs - 1 ? "," : "];");
+            }
+            pw.println(sb);
+            pw.println();
+            pw.println("nSkills = " + NUM_SKILLS + ";");
+            sb = new StringBuilder("sreq = [");
+            for (int i = 0; i < numActs; i++) {
+                sb.append(i == 0 ? "| " : "\t| ");
+                for (int k = 0; k < NUM_SKILLS; k++) {
+                    sb.append(required[i][k]).append(',');
+                }
+                sb.append(i < numActs - 1 ? "\n" : " |];");
+            }
+            pw.println(sb);
+            pw.println();
+            pw.println("nResources = " + resources + ";");
+            sb = new StringBuilder("mastery = [");
+            for (int r = 0; r < resources; r++) {
+                sb.append(r == 0 ? "| " : "\t| ");
+                for (int k = 0; k < NUM_SKILLS; k++) {
+                    sb.append(mastery[r][k]).append(',');
+                }
+                sb.append(r < resources - 1 ? "\n" : " |];");
+            }
+            pw.println(sb);
+            pw.println();
+            pw.println("nPrecs = " + precedences.size() + ";");
+            StringBuilder pred = new StringBuilder("pred = [");
+            StringBuilder succ = new StringBuilder("succ = [");
+            for (int i = 0; i < precedences.size(); i++) {
+                String separator = i < precedences.size() - 1 ? "," : "];";
+                pred.append(precedences.get(i)[0] + 1).append(separator);
+                succ.append(precedences.get(i)[1] + 1).append(separator);
+            }
+            pw.println(pred);
+            pw.println(succ);
+        }
+    }
+
+    /**
+     * True if distinct resources can fill all required units, checked by matching units to resources.
+     */
+    private boolean isStaffable(int[] required, boolean[][] mastery) {
+        int numSlots = 0;
+        for (int units : required) {
+            numSlots += units;
+        }
+        int[] offset = new int[numSlots + 1];
+        int[] adjacency = new int[numSlots * resources];
+        int slot = 0;
+        for (int k = 0; k < NUM_SKILLS; k++) {
+            for (int u = 0; u < required[k]; u++, slot++) {
+                offset[slot + 1] = offset[slot];
+                for (int r = 0; r < resources; r++) {
+                    if (mastery[r][k]) {
+                        adjacency[offset[slot + 1]++] = r;
+                    }
+                }
+            }
+        }
+        return new SkillMatching().match(numSlots, resources, offset, adjacency) == numSlots;
+    }
+}
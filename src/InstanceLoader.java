@@ -6,6 +6,7 @@ import java.util.logging.Logger;
 
 /**
  * Handles loading and parsing .dzn files for Multi Skill Project Scheduling Problem
+ * into a ProblemModel shared by all schedules of the instance.
  */
 public class InstanceLoader {
 
@@ -22,15 +23,35 @@ public class InstanceLoader {
     private int numSkills;
     private int numResources;
 
-    private Resource[] resources;
-    private Activity[] activities;
+    private ProblemModel model;
+    private Schedule template;
 
     HashMap<Integer, Set<Integer>> predecessors;
 
+    private LowerBounds lowerBounds;
+    private PrecedenceAnalysis precedenceAnalysis;
+
     public InstanceLoader(String filename) {
         this.filename = filename;
     }
 
+    /**
+     * Instance given by its model instead of a file, e.g. a loaded instance changed by an InstanceDiff,
+     * with the precedence analysis if known.
+     */
+    InstanceLoader(String filename, ProblemModel model, HashMap<Integer, Set<Integer>> predecessors,
+                   PrecedenceAnalysis precedenceAnalysis) {
+        this.filename = filename;
+        this.model = model;
+        this.predecessors = predecessors;
+        this.precedenceAnalysis = precedenceAnalysis;
+        this.minMakespan = model.getMinMakespan();
+        this.maxMakespan = model.getMaxMakespan();
+        this.numActivities = model.getNumActivities();
+        this.numSkills = model.getNumSkills();
+        this.numResources = model.getNumResources();
+    }
+
     public void loadInstance() {
         try {
             reader = new BufferedReader(new FileReader(filename));
@@ -49,14 +70,14 @@ public class InstanceLoader {
             int[] duration = readDuration(numActivities);
 
             numSkills = readValue("nSkills");
-            RequiredSkill[][] requiredSkills = readRequiredSkills(numActivities, numSkills);
+            int[][] requiredSkills = readRequiredSkills(numActivities, numSkills);
 
             numResources = readValue("nResources");
-            resources = readResources(numResources, numSkills);
+            boolean[][] mastery = readSkills(numResources, numSkills);
 
             predecessors = readPredecessors();
 
-            activities = readActivities(numActivities, requiredSkills, duration, predecessors);
+            model = new ProblemModel(minMakespan, maxMakespan, duration, requiredSkills, mastery, predecessors);
 
         } catch (IOException e) {
             LOGGER.log(Level.FINE, e.toString());
@@ -80,18 +101,8 @@ public class InstanceLoader {
         return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1, line.lastIndexOf(';')));
     }
 
-    private Activity[] readActivities(int numActivities, RequiredSkill[][] requiredSkills,
-                                      int[] duration, HashMap<Integer, Set<Integer>> predecessors) throws IOException {
-        Activity[] activities = new Activity[numActivities];
-
-        for (int i = 0; i < numActivities; i++) {
-            activities[i] = new Activity(i + 1, requiredSkills[i], duration[i], predecessors.get(i + 1));
-        }
-        return activities;
-    }
-
-    private RequiredSkill[][] readRequiredSkills(int numActivities, int numSkills) throws IOException {
-        RequiredSkill[][] requiredSkillsPerActivity = new RequiredSkill[numActivities][numSkills];
+    private int[][] readRequiredSkills(int numActivities, int numSkills) throws IOException {
+        int[][] requiredSkillsPerActivity = new int[numActivities][numSkills];
 
         String sreqArray = readMultilineArray("sreq");
 
@@ -102,12 +113,9 @@ public class InstanceLoader {
 
         for (int i = 0; i < numActivities; i++) {
             String[] requiredSkillsArray = sreqPerActivityArray[i].split(",");
-            RequiredSkill[] requiredSkills = new RequiredSkill[numSkills];
             for (int j = 0; j < numSkills; ++j) {
-                int required = Integer.parseInt(requiredSkillsArray[j].trim());
-                requiredSkills[j] = new RequiredSkill(j, required);
+                requiredSkillsPerActivity[i][j] = Integer.parseInt(requiredSkillsArray[j].trim());
             }
-            requiredSkillsPerActivity[i] = requiredSkills;
         }
         return requiredSkillsPerActivity;
     }
@@ -179,16 +187,7 @@ public class InstanceLoader {
         return line.substring(line.indexOf('[') + 1, line.indexOf(']')).split(",");
     }
 
-    private Resource[] readResources(int numResources, int numSkills) throws IOException {
-        Resource[] resources = new Resource[numResources];
-        Skill[][] skillsPerResource = readSkills(numResources, numSkills);
-        for (int i = 0; i < numResources; i++) {
-            resources[i] = new Resource(i, skillsPerResource[i]);
-        }
-        return resources;
-    }
-
-    private Skill[][] readSkills(int numResources, int numSkills) throws IOException {
+    private boolean[][] readSkills(int numResources, int numSkills) throws IOException {
         String masteryArray = readMultilineArray("mastery");
 
         String[] skillsPerResourceArray = masteryArray.substring(masteryArray.indexOf('|') + 2,
@@ -196,17 +195,13 @@ public class InstanceLoader {
                 .replace("\t", "")
                 .split("\\|");
 
-        Skill[][] skillsPerResource = new Skill[numResources][numSkills];
+        boolean[][] skillsPerResource = new boolean[numResources][numSkills];
 
         for (int i = 0; i < numResources; i++) {
             String[] skillTypes = skillsPerResourceArray[i].split(",");
-            Skill[] skills = new Skill[4];
             for (int j = 0; j < numSkills; ++j) {
-                if (skillTypes[j].trim().equals("true")) {
-                    skills[j] = new Skill(j);
-                }
+                skillsPerResource[i][j] = skillTypes[j].trim().equals("true");
             }
-            skillsPerResource[i] = skills;
         }
         return skillsPerResource;
     }
@@ -242,15 +237,56 @@ public class InstanceLoader {
         return numResources;
     }
 
+    public ProblemModel getModel() {
+        return model;
+    }
+
+    /**
+     * Resources of a schedule of the instance kept by the loader.
+     */
     public Resource[] getResources() {
-        return resources;
+        return getTemplate().getResources();
     }
 
+    /**
+     * Activities of a schedule of the instance kept by the loader, started at their earliest times.
+     */
     public Activity[] getActivities() {
-        return activities;
+        return getTemplate().getActivities();
+    }
+
+    private Schedule getTemplate() {
+        if (template == null) {
+            template = new Schedule(this);
+        }
+        return template;
     }
 
     public HashMap<Integer, Set<Integer>> getPredecessors() {
         return predecessors;
     }
+
+    String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Precedence analysis of the loaded instance, computed on first call.
+     */
+    public PrecedenceAnalysis getPrecedenceAnalysis() {
+        if (precedenceAnalysis == null) {
+            precedenceAnalysis = new PrecedenceAnalysis(model);
+        }
+        return precedenceAnalysis;
+    }
+
+    /**
+     * Lower bounds of the loaded instance, computed on first call.
+     */
+    public LowerBounds getLowerBounds() {
+        if (lowerBounds == null) {
+            lowerBounds = new LowerBounds(this);
+        }
+        return lowerBounds;
+    }
 }
@@ -0,0 +1,176 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * Time and allocation spent in the phases of the genetic algorithm.
+ * Enabled by the system property mspsp.instrumentation=true. The flag is a static final constant,
+ * so when it is off the JIT compiler removes the calls of begin and end entirely.
+ * <p>
+ * A phase is measured by
+ * <pre>
+ *     long mark = Instrumentation.begin(Phase.SELECT);
+ *     ...
+ *     Instrumentation.end(Phase.SELECT, mark);
+ * </pre>
+ * Totals are kept in striped counters (LongAdder), so threads measuring the same phase do not contend.
+ * Every measured phase and every generation is also committed as a JDK Flight Recorder event,
+ * which costs nothing unless a recording with these events runs.
+ */
+public final class Instrumentation {
+
+    static final boolean ENABLED = Boolean.getBoolean("mspsp.instrumentation");
+
+    enum Phase {
+        INITIALIZE_POPULATION,
+        SELECT,
+        CROSSOVER,
+        MUTATE,
+        REINITIALIZE_SCHEDULE,
+        EVALUATE_DURATION,
+        EVALUATE_CONSTRAINTS
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final LongAdder[] CALLS = adders();
+    private static final LongAdder[] NANOS = adders();
+    private static final LongAdder[] ALLOCATED_BYTES = adders();
+    private static final ThreadLocal<long[]> ALLOCATED_AT_BEGIN = ThreadLocal.withInitial(() -> new long[PHASES.length]);
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ENABLED ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() : null;
+
+    @Name("mspsp.Phase")
+    @Label("GA Phase")
+    @Category("MSPSP")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocatedBytes;
+    }
+
+    @Name("mspsp.Generation")
+    @Label("GA Generation")
+    @Category("MSPSP")
+    static final class GenerationEvent extends Event {
+        @Label("Generation")
+        int generation;
+
+        @Label("Best Makespan")
+        double best;
+
+        @Label("Average Makespan")
+        double avg;
+
+        @Label("Average Conflicts")
+        int conflicts;
+
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+    }
+
+    private Instrumentation() {
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[Phase.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Starts measuring the phase on this thread, returns the mark to pass to end.
+     */
+    static long begin(Phase phase) {
+        if (!ENABLED) {
+            return 0;
+        }
+        ALLOCATED_AT_BEGIN.get()[phase.ordinal()] = THREADS.getCurrentThreadAllocatedBytes();
+        return System.nanoTime();
+    }
+
+    static void end(Phase phase, long mark) {
+        if (!ENABLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - mark;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - ALLOCATED_AT_BEGIN.get()[phase.ordinal()];
+        CALLS[phase.ordinal()].increment();
+        NANOS[phase.ordinal()].add(nanos);
+        ALLOCATED_BYTES[phase.ordinal()].add(allocated);
+        PhaseEvent event = new PhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.nanos = nanos;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the mark of a generation start to pass to generation.
+     */
+    static long now() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records an evaluated generation which started at given mark.
+     */
+    static void generation(Population population, long mark) {
+        if (!ENABLED) {
+            return;
+        }
+        GenerationEvent event = new GenerationEvent();
+        if (event.shouldCommit()) {
+            event.nanos = System.nanoTime() - mark;
+            event.generation = population.getId();
+            event.best = population.getBestTime();
+            event.avg = population.getAvgTime();
+            event.conflicts = population.getAvgConflicts();
+            event.commit();
+        }
+    }
+
+    /**
+     * Table of calls, total and average time and allocation per phase.
+     */
+    static String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("phase;calls;totalMillis;avgNanos;allocatedMB\n");
+        for (Phase phase : PHASES) {
+            long calls = CALLS[phase.ordinal()].sum();
+            long nanos = NANOS[phase.ordinal()].sum();
+            sb.append(phase.name().toLowerCase()).append(';')
+                    .append(calls).append(';')
+                    .append(nanos / 1_000_000).append(';')
+                    .append(calls == 0 ? 0 : nanos / calls).append(';')
+                    .append(ALLOCATED_BYTES[phase.ordinal()].sum() / (1024 * 1024)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static void reset() {
+        for (Phase phase : PHASES) {
+            CALLS[phase.ordinal()].reset();
+            NANOS[phase.ordinal()].reset();
+            ALLOCATED_BYTES[phase.ordinal()].reset();
+        }
+    }
+}
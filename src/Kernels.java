@@ -0,0 +1,50 @@
+/**
+ * Loops over int arrays used by evaluation, vectorized by VectorKernels when the JVM runs with
+ * --add-modules jdk.incubator.vector, scalar otherwise. Both give identical results.
+ * The system property mspsp.kernels=scalar forces the scalar loops. The choice is a static final constant,
+ * so the JIT compiler keeps only one of the branches.
+ */
+public final class Kernels {
+
+    static final boolean VECTORIZED = !"scalar".equals(System.getProperty("mspsp.kernels"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private Kernels() {
+    }
+
+    /**
+     * Largest of values[from, to), Integer.MIN_VALUE if the range is empty.
+     */
+    static int max(int[] values, int from, int to) {
+        return VECTORIZED ? VectorKernels.max(values, from, to) : scalarMax(values, from, to);
+    }
+
+    /**
+     * Writes indexes i with low <= values[i] < high into indexes, in ascending order, and returns their count.
+     * Indexes has to hold values.length entries.
+     */
+    static int indexesWithin(int[] values, int low, int high, int[] indexes) {
+        return VECTORIZED ? VectorKernels.indexesWithin(values, low, high, indexes)
+                : scalarIndexesWithin(values, low, high, indexes);
+    }
+
+    static int scalarMax(int[] values, int from, int to) {
+        int max = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            if (values[i] > max) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    static int scalarIndexesWithin(int[] values, int low, int high, int[] indexes) {
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] >= low && values[i] < high) {
+                indexes[count++] = i;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.random.RandomGenerator;
+
+
+/**
+ * Bounded variable neighbourhood descent over a ScheduleState.
+ * Neighbourhoods are tried in order shift, reassign, swap; a sample of candidate moves is taken from the
+ * current neighbourhood and the first improving one is applied, after which the search returns to the first
+ * neighbourhood. Shifts to the left which keep the cost are accepted as well, they compact the schedule.
+ * It stops when no neighbourhood improves, after maxSteps moves, when a budget of candidate moves is spent,
+ * or at a deadline. Unless it reaches the deadline, a search depends only on the state and the random stream.
+ */
+public class LocalSearch {
+
+    private static final int SHIFT_RANGE = 3;
+    private static final int NUM_NEIGHBOURHOODS = 3;
+
+    private final int maxSteps;
+
+    public LocalSearch(int maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Improves the state in place, returns true if its cost decreased.
+     *
+     * @param maxCandidates - number of candidate moves the search may sample, a sample counts in full
+     * @param deadline      - System.nanoTime() at which the search stops
+     */
+    boolean improve(ScheduleState state, RandomGenerator random, long maxCandidates, long deadline) {
+        long initialCost = state.getCost();
+        int candidates = 4 * state.getNumActivities();
+        int neighbourhood = 0;
+        int steps = 0;
+        long remaining = maxCandidates;
+        while (neighbourhood < NUM_NEIGHBOURHOODS && steps < maxSteps && remaining > 0
+                && System.nanoTime() < deadline) {
+            int sample = (int) Math.min(candidates, remaining);
+            remaining -= sample;
+            if (tryImprove(state, neighbourhood, sample, random)) {
+                neighbourhood = 0;
+                steps++;
+            } else {
+                neighbourhood++;
+            }
+        }
+        return state.getCost() < initialCost;
+    }
+
+    private boolean tryImprove(ScheduleState state, int neighbourhood, int candidates, RandomGenerator random) {
+        long cost = state.getCost();
+        for (int i = 0; i < candidates; i++) {
+            switch (neighbourhood) {
+                case 0: {
+                    int a = random.nextInt(state.getNumActivities());
+                    int newStart = randomShift(state, a, random);
+                    // moving left without making things worse compacts the schedule, so it is accepted too
+                    if (newStart >= 0 && (state.costOfShift(a, newStart) < cost
+                            || newStart < state.getStart(a) && state.costOfShift(a, newStart) == cost)) {
+                        state.shift(a, newStart);
+                        return true;
+                    }
+                    break;
+                }
+                case 1: {
+                    if (state.getNumSlots() == 0) {
+                        return false;
+                    }
+                    int slot = random.nextInt(state.getNumSlots());
+                    int resource = random.nextInt(state.getNumResources());
+                    if (state.canReassign(slot, resource) && state.costOfReassign(slot, resource) < cost) {
+                        state.reassign(slot, resource);
+                        return true;
+                    }
+                    break;
+                }
+                default: {
+                    int a = random.nextInt(state.getNumActivities());
+                    int b = random.nextInt(state.getNumActivities());
+                    if (a != b && state.costOfSwap(a, b) < cost) {
+                        state.swap(a, b);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * New start time of activity a moved by at most SHIFT_RANGE in either direction, or -1.
+     */
+    static int randomShift(ScheduleState state, int a, RandomGenerator random) {
+        int delta = random.nextInt(2 * SHIFT_RANGE) - SHIFT_RANGE;
+        if (delta >= 0) {
+            delta++;
+        }
+        int newStart = state.getStart(a) + delta;
+        return newStart >= 0 ? newStart : -1;
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.Arrays;
+import java.util.TreeSet;
+
+
+/**
+ * Makespan lower bounds of an MSPSP instance:
+ * critical path, resource and skill workload (energy) and energetic reasoning over time windows.
+ * Heads and tails come from the PrecedenceAnalysis of the instance.
+ */
+public class LowerBounds {
+
+    private static final int MAX_ENERGETIC_STEPS = 200;
+
+    private final int numActivities;
+    private final int numResources;
+    private final int numSkills;
+    private final int[] duration;
+    private final int[][] required;
+    private final int[] capableResources;
+    private final int[] head;
+    private final int[] tail;
+
+    private final int criticalPath;
+    private final int resourceEnergy;
+    private final int skillEnergy;
+    private final int energeticReasoning;
+    private final int instanceBound;
+
+    public LowerBounds(InstanceLoader instanceLoader) {
+        Activity[] activities = instanceLoader.getActivities();
+        Resource[] resources = instanceLoader.getResources();
+        numActivities = activities.length;
+        numResources = resources.length;
+        numSkills = instanceLoader.getNumSkills();
+        instanceBound = Math.max(0, instanceLoader.getMinMakespan());
+
+        duration = new int[numActivities];
+        required = new int[numActivities][numSkills];
+        for (int i = 0; i < numActivities; i++) {
+            duration[i] = activities[i].getDuration();
+            for (RequiredSkill requiredSkill : activities[i].getRequiredSkills()) {
+                required[i][requiredSkill.getType()] = requiredSkill.getRequired();
+            }
+        }
+        capableResources = new int[numSkills];
+        for (Resource resource : resources) {
+            for (int k = 0; k < numSkills; k++) {
+                if (resource.isCapableOf(k)) {
+                    capableResources[k]++;
+                }
+            }
+        }
+
+        PrecedenceAnalysis precedenceAnalysis = instanceLoader.getPrecedenceAnalysis();
+        head = precedenceAnalysis.getHeads();
+        tail = precedenceAnalysis.getTails();
+
+        criticalPath = computeCriticalPath();
+        resourceEnergy = computeResourceEnergy();
+        skillEnergy = computeSkillEnergy();
+        energeticReasoning = computeEnergeticReasoning(
+                Math.max(instanceBound, Math.max(criticalPath, Math.max(resourceEnergy, skillEnergy))));
+    }
+
+    private int computeCriticalPath() {
+        int bound = 0;
+        for (int i = 0; i < numActivities; i++) {
+            if (duration[i] > 0) {
+                bound = Math.max(bound, head[i] + duration[i] + tail[i]);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Every resource contributes at most one skill unit at a time.
+     */
+    private int computeResourceEnergy() {
+        long work = 0;
+        for (int i = 0; i < numActivities; i++) {
+            work += (long) duration[i] * Arrays.stream(required[i]).sum();
+        }
+        return numResources == 0 ? 0 : (int) ((work + numResources - 1) / numResources);
+    }
+
+    /**
+     * Units of a skill are done only by resources mastering it.
+     */
+    private int computeSkillEnergy() {
+        int bound = 0;
+        for (int k = 0; k < numSkills; k++) {
+            long work = 0;
+            for (int i = 0; i < numActivities; i++) {
+                work += (long) duration[i] * required[i][k];
+            }
+            if (capableResources[k] > 0) {
+                bound = Math.max(bound, (int) ((work + capableResources[k] - 1) / capableResources[k]));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Raises the makespan T from the given bound while some time window [t1, t2) needs more work,
+     * of all resources or of resources mastering one skill, than they can give.
+     * Work an activity has to do inside a window follows from its earliest start and its latest start T - tail - duration.
+     */
+    private int computeEnergeticReasoning(int bound) {
+        int makespan = bound;
+        for (int step = 0; step < MAX_ENERGETIC_STEPS && !isEnergeticallyFeasible(makespan); step++) {
+            makespan++;
+        }
+        return makespan;
+    }
+
+    private boolean isEnergeticallyFeasible(int makespan) {
+        int[] latestStart = new int[numActivities];
+        TreeSet<Integer> points = new TreeSet<>();
+        for (int i = 0; i < numActivities; i++) {
+            latestStart[i] = makespan - tail[i] - duration[i];
+            if (duration[i] > 0) {
+                if (latestStart[i] < head[i]) {
+                    return false;
+                }
+                points.add(head[i]);
+                points.add(head[i] + duration[i]);
+                points.add(latestStart[i]);
+                points.add(latestStart[i] + duration[i]);
+            }
+        }
+        Integer[] times = points.toArray(new Integer[0]);
+        long[] skillWork = new long[numSkills];
+        for (int a = 0; a < times.length; a++) {
+            for (int b = a + 1; b < times.length; b++) {
+                int t1 = times[a];
+                int t2 = times[b];
+                long work = 0;
+                Arrays.fill(skillWork, 0);
+                for (int i = 0; i < numActivities; i++) {
+                    int inside = Math.min(Math.min(t2 - t1, duration[i]),
+                            Math.min(head[i] + duration[i] - t1, t2 - latestStart[i]));
+                    if (inside > 0) {
+                        for (int k = 0; k < numSkills; k++) {
+                            work += (long) inside * required[i][k];
+                            skillWork[k] += (long) inside * required[i][k];
+                        }
+                    }
+                }
+                if (work > (long) numResources * (t2 - t1)) {
+                    return false;
+                }
+                for (int k = 0; k < numSkills; k++) {
+                    if (skillWork[k] > (long) capableResources[k] * (t2 - t1)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Best of all bounds, including the one given in the instance file (mint).
+     */
+    public int getLowerBound() {
+        return Math.max(instanceBound, Math.max(Math.max(criticalPath, resourceEnergy),
+                Math.max(skillEnergy, energeticReasoning)));
+    }
+
+    /**
+     * Relative distance of given makespan from the lower bound, 0 means the makespan is optimal.
+     */
+    public double getGap(double makespan) {
+        int lowerBound = getLowerBound();
+        return lowerBound > 0 ? (makespan - lowerBound) / lowerBound : 0;
+    }
+
+    /**
+     * Getters.
+     */
+    public int getCriticalPath() {
+        return criticalPath;
+    }
+
+    public int getResourceEnergy() {
+        return resourceEnergy;
+    }
+
+    public int getSkillEnergy() {
+        return skillEnergy;
+    }
+
+    public int getEnergeticReasoning() {
+        return energeticReasoning;
+    }
+
+    public int getInstanceBound() {
+        return instanceBound;
+    }
+
+    int[] getHeads() {
+        return head;
+    }
+
+    int[] getTails() {
+        return tail;
+    }
+}
@@ -1,43 +1,50 @@
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public class Main {
     private static final String INSTANCE_NAME = "inst_set1a_sf0.5_nc1.5_n20_m10_00";
     private static final String TEST_INSTANCE = "instances/" + INSTANCE_NAME + ".dzn";
+    private static final long TIME_BUDGET_MILLIS = 60_000;
+    private static final int STAGNATION_GENERATIONS = 50;
+    private static final int MEMETIC_ELITES = 4;
+    private static final long MEMETIC_CANDIDATES = 2000;
+    private static final double GREEDY_SEED_FRACTION = 0.1;
+    private static final int PIPELINE_CAPACITY = 64;
 
     public static void main(String[] args) {
         GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(TEST_INSTANCE);
-        int generation = 0;
-        Population population = geneticAlgorithm.initializePopulation();
-        population.evaluateDuration();
-        population.evaluateConstraints();
-        try {
-            PrintWriter pw = new PrintWriter("results/res_" + INSTANCE_NAME + ".csv");
-            StringBuilder sb = new StringBuilder();
-            sb.append("pid");
-            sb.append(';');
-            sb.append("best");
-            sb.append(';');
-            sb.append("worst");
-            sb.append(';');
-            sb.append("avg");
-            sb.append(';');
-            sb.append("avgConflicts");
-            sb.append('\n');
-
-            sb.append(population);
+        geneticAlgorithm.enableAdaptiveOperators();
+        geneticAlgorithm.setGreedySeedFraction(GREEDY_SEED_FRACTION);
+        int cores = Runtime.getRuntime().availableProcessors();
+        // on a single core the local search takes its time from breeding, so it samples half the moves
+        long memeticCandidates = cores > 1 ? MEMETIC_CANDIDATES : MEMETIC_CANDIDATES / 2;
+        geneticAlgorithm.enableMemetic(MEMETIC_ELITES, memeticCandidates, Math.max(1, cores - 1));
+        if (cores > 1) {
+            geneticAlgorithm.enablePipeline(cores / 2, cores - cores / 2, PIPELINE_CAPACITY);
+        }
+        if (args.length > 0) {
+            geneticAlgorithm.setSeed(Long.parseLong(args[0]));
+        }
 
-            while (generation < geneticAlgorithm.getGenerations()) {
-                generation++;
-                population = geneticAlgorithm.createNewPopulation(population, generation);
-                population.evaluateDuration();
-                population.evaluateConstraints();
-                sb.append(population);
-            }
-            pw.write(sb.toString());
-            pw.close();
-        } catch (FileNotFoundException e) {
+        TerminationCriteria termination = new TerminationCriteria(geneticAlgorithm.getGenerations());
+        termination.setTimeBudgetMillis(TIME_BUDGET_MILLIS);
+        termination.setStagnationGenerations(STAGNATION_GENERATIONS);
+        try (ResultsWriter resultsWriter = new ResultsWriter(Paths.get("results/res_" + INSTANCE_NAME + ".csv"));
+             RunLog runLog = new RunLog(Paths.get("results/res_" + INSTANCE_NAME + ".runlog"), INSTANCE_NAME,
+                     geneticAlgorithm.getSeed())) {
+            geneticAlgorithm.run(termination, resultsWriter.andThen(runLog));
+        } catch (IOException e) {
             e.printStackTrace();
         }
+        if (Instrumentation.ENABLED) {
+            String summary = Instrumentation.summary();
+            System.out.print(summary);
+            try {
+                Files.writeString(Paths.get("results/phases_" + INSTANCE_NAME + ".csv"), summary);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 }
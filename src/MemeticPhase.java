@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Optional intensification step of GeneticAlgorithm. Copies of the elite individuals of an evaluated
+ * population are improved with LocalSearch on worker threads while the next generation is bred,
+ * then the improved elites replace the last children of the new population.
+ * Every search has a budget of candidate moves instead of a time limit and its random stream comes from
+ * RandomStreams, so the improved elites, and with them the whole run, depend only on the seed.
+ * The deadline of the run stops searches too, but then GeneticAlgorithm drops the generation.
+ */
+public class MemeticPhase {
+
+    private static final Logger LOGGER = Logger.getLogger(MemeticPhase.class.getName());
+    private static final int MAX_STEPS = 1000;
+
+    private final int eliteCount;
+    private final long candidates;
+    private final int threads;
+    private ExecutorService executor;
+    private final LocalSearch localSearch;
+    private final List<Future<Individual>> running = new ArrayList<>();
+
+    public MemeticPhase(int eliteCount, long candidates, int threads) {
+        this.eliteCount = eliteCount;
+        this.candidates = candidates;
+        this.localSearch = new LocalSearch(MAX_STEPS);
+        this.threads = threads;
+    }
+
+    /**
+     * Starts local search on copies of the elite individuals of the evaluated population.
+     */
+    void start(Population population, RandomStreams randomStreams, int generation, long deadline) {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "memetic-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        ArrayList<Individual> elites = new ArrayList<>(population.getIndividuals());
+        elites.sort(Population.FITNESS_ORDER);
+        for (int i = 0; i < Math.min(eliteCount, elites.size()); i++) {
+            Schedule elite = elites.get(i).getSchedule();
+            Schedule schedule = elite.copy(elite.getActivities());
+            SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.SEARCH, generation, i);
+            running.add(executor.submit(() -> {
+                ScheduleState state = new ScheduleState(schedule);
+                localSearch.improve(state, random, candidates, deadline);
+                state.writeTo();
+                return new Individual(schedule);
+            }));
+        }
+    }
+
+    /**
+     * Waits for all searches started last and puts their results in place of the last children.
+     */
+    void finish(Population newPopulation) {
+        ArrayList<Individual> individuals = newPopulation.getIndividuals();
+        int position = individuals.size() - 1;
+        for (Future<Individual> future : running) {
+            try {
+                individuals.set(position--, future.get());
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Local search result dropped: " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        running.clear();
+    }
+
+    int getEliteCount() {
+        return eliteCount;
+    }
+
+    /**
+     * Stops the searches started last, for a generation which is dropped.
+     */
+    void cancel() {
+        for (Future<Individual> future : running) {
+            future.cancel(true);
+        }
+        running.clear();
+    }
+
+    /**
+     * Stops the workers at the end of a run, a next run starts new ones.
+     */
+    void close() {
+        running.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+
+/**
+ * Occupancy of resources over the time horizon, one bitmap per resource with a bit per time unit.
+ * Bitmaps are stored one after another in a single long array. Occupying an interval sets a range of bits,
+ * checking it is a masked AND over the words of the interval.
+ */
+public class Occupancy {
+
+    private int horizon;
+    private int words;
+    private long[] bits = new long[0];
+
+    /**
+     * Clears the occupancy and sizes it for given resources and horizon, reusing the bitmaps if large enough.
+     */
+    void reset(int numResources, int horizon) {
+        this.horizon = horizon;
+        this.words = (horizon + 63) >>> 6;
+        int size = numResources * words;
+        if (bits.length < size) {
+            bits = new long[size];
+        } else {
+            Arrays.fill(bits, 0, size, 0L);
+        }
+    }
+
+    public int getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Checks that the resource is free in [from, to), which has to lie within the horizon.
+     */
+    public boolean isFree(int resource, int from, int to) {
+        if (from >= to) {
+            return true;
+        }
+        int base = resource * words;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int w = first; w <= last; w++) {
+            if ((bits[base + w] & mask(w, first, last, from, to)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Occupies the resource in [from, to), which has to lie within the horizon.
+     */
+    public void occupy(int resource, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int base = resource * words;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int w = first; w <= last; w++) {
+            bits[base + w] |= mask(w, first, last, from, to);
+        }
+    }
+
+    /**
+     * Occupies the resource in [from, to) if it is free then, otherwise returns false and changes nothing.
+     */
+    public boolean tryOccupy(int resource, int from, int to) {
+        if (!isFree(resource, from, to)) {
+            return false;
+        }
+        occupy(resource, from, to);
+        return true;
+    }
+
+    /**
+     * Latest time in [from, to) at which the resource is occupied, -1 if it is free then.
+     */
+    public int lastOccupied(int resource, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int base = resource * words;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int w = last; w >= first; w--) {
+            long occupied = bits[base + w] & mask(w, first, last, from, to);
+            if (occupied != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(occupied);
+            }
+        }
+        return -1;
+    }
+
+    private static long mask(int word, int first, int last, int from, int to) {
+        long mask = -1L;
+        if (word == first) {
+            mask &= -1L << (from & 63);
+        }
+        if (word == last) {
+            mask &= -1L >>> (63 - ((to - 1) & 63));
+        }
+        return mask;
+    }
+}
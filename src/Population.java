@@ -1,11 +1,22 @@
-import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
 
 /**
  * Represents array of individuals by providing their results with the help of Evaluation class.
+ * GeneticAlgorithm reuses a population with its individuals and schedules for the generation after next,
+ * so anything kept from a population passed to a listener has to be copied.
+ * <p>
+ * Individuals are kept either on the heap or, for very large populations, in a PopulationStore, in which case
+ * getIndividuals is empty and evaluation and getBestIndividual read the store.
  */
 public class Population {
+    static final Comparator<Individual> FITNESS_ORDER = (first, second) -> {
+        int order = Double.compare(first.getDuration(), second.getDuration());
+        return order != 0 ? order : Integer.compare(first.getConflicts(), second.getConflicts());
+    };
+
     private ArrayList<Individual> individuals;
+    private final PopulationStore store;
     private int id;
 
     private double bestTime;
@@ -19,13 +30,21 @@ public class Population {
     private int mostConflicts;
     private int avgConflicts;
 
+    private double gap;
+
     Population(ArrayList<Individual> individuals, int id) {
         this.individuals = individuals;
+        this.store = null;
         this.id = id;
     }
 
     Population(int id) {
+        this(new ArrayList<>(), id);
+    }
+
+    Population(PopulationStore store, int id) {
         this.individuals = new ArrayList<>();
+        this.store = store;
         this.id = id;
     }
 
@@ -34,10 +53,14 @@ public class Population {
     }
 
     public String toString() {
-        return id + ";" + bestTime + ";" + worstTime + ";" + avgTime + ";" + avgConflicts +'\n';
+        return id + ";" + bestTime + ";" + worstTime + ";" + avgTime + ";" + avgConflicts + ";" + gap + '\n';
     }
 
     void evaluateDuration() {
+        if (store != null) {
+            evaluateStoredDuration();
+            return;
+        }
         double bestTime = 0;
         double worstTime = 0;
         double sumTime = 0;
@@ -66,7 +89,45 @@ public class Population {
         this.normalizedTime = roundTwoDecimals(normalizedTime);
     }
 
+    /**
+     * Same as evaluateDuration, reading makespans of the records of the store.
+     */
+    private void evaluateStoredDuration() {
+        double bestTime = 0;
+        double worstTime = 0;
+        double sumTime = 0;
+        double normalizedTime = 1;
+        double maxDuration = new Evaluation(store.getScratch()).getMaxDuration();
+
+        PopulationStore.Cursor cursor = store.cursor();
+        for (int i = 0; i < store.size(); i++) {
+            cursor.at(i);
+            double duration = cursor.getMakespan();
+            cursor.setDuration(duration);
+            sumTime += duration;
+            if (duration < bestTime || 0 == bestTime) {
+                bestTime = duration;
+            }
+            if (duration > worstTime || 0 == worstTime) {
+                worstTime = duration;
+            }
+            double durationNormalized = duration / maxDuration;
+            if (durationNormalized < normalizedTime) {
+                normalizedTime = durationNormalized;
+            }
+        }
+        this.bestTime = roundTwoDecimals(bestTime);
+        this.worstTime = roundTwoDecimals(worstTime);
+        this.sumTime = roundTwoDecimals(sumTime);
+        this.avgTime = roundTwoDecimals(sumTime / store.size());
+        this.normalizedTime = roundTwoDecimals(normalizedTime);
+    }
+
     void evaluateConstraints(){
+        if (store != null) {
+            evaluateStoredConstraints();
+            return;
+        }
         int leastConflicts = 0;
         int mostConflicts = 0;
         int sumConflicts = 0;
@@ -88,9 +149,135 @@ public class Population {
         this.avgConflicts = sumConflicts/individuals.size();
     }
 
+    /**
+     * Same as evaluateConstraints, validating records of the store loaded into its scratch schedule.
+     */
+    private void evaluateStoredConstraints() {
+        int leastConflicts = 0;
+        int mostConflicts = 0;
+        int sumConflicts = 0;
+        Schedule scratch = store.getScratch();
+        ConstraintValidation validation = new ConstraintValidation(scratch);
+
+        PopulationStore.Cursor cursor = store.cursor();
+        for (int i = 0; i < store.size(); i++) {
+            cursor.at(i).loadAssignments(scratch);
+            int conflicts = validation.getNumberOfConflicts();
+            cursor.setConflicts(conflicts);
+            sumConflicts += conflicts;
+            if (conflicts < leastConflicts) {
+                leastConflicts = conflicts;
+            }
+            if (conflicts > mostConflicts) {
+                mostConflicts = conflicts;
+            }
+        }
+        this.leastConflicts = leastConflicts;
+        this.mostConflicts = mostConflicts;
+        this.avgConflicts = sumConflicts / store.size();
+    }
+
+    /**
+     * Takes the statistics of a tally of all individuals, as evaluateDuration and evaluateConstraints would set them.
+     */
+    void setStatistics(Tally tally) {
+        int size = size();
+        this.bestTime = roundTwoDecimals(tally.bestTime);
+        this.worstTime = roundTwoDecimals(tally.worstTime);
+        this.sumTime = roundTwoDecimals(tally.sumTime);
+        this.avgTime = roundTwoDecimals(tally.sumTime / size);
+        this.normalizedTime = roundTwoDecimals(tally.normalizedTime);
+        this.leastConflicts = tally.leastConflicts;
+        this.mostConflicts = tally.mostConflicts;
+        this.avgConflicts = tally.sumConflicts / size;
+    }
+
+    /**
+     * Statistics of individuals reduced while they are evaluated, one by one and in any order.
+     * Tallies of disjoint parts of a population are merged into the tally of the whole.
+     */
+    static final class Tally {
+        private double bestTime;
+        private double worstTime;
+        private double sumTime;
+        private double normalizedTime = 1;
+        private int leastConflicts;
+        private int mostConflicts;
+        private int sumConflicts;
+
+        /**
+         * Evaluates the individual as evaluateDuration and evaluateConstraints do and adds it.
+         */
+        void evaluate(Individual individual, double maxDuration) {
+            Evaluation evaluator = new Evaluation(individual.getSchedule());
+            long mark = Instrumentation.begin(Instrumentation.Phase.EVALUATE_DURATION);
+            double duration = evaluator.getDuration();
+            individual.setDuration(duration);
+            Instrumentation.end(Instrumentation.Phase.EVALUATE_DURATION, mark);
+            mark = Instrumentation.begin(Instrumentation.Phase.EVALUATE_CONSTRAINTS);
+            int conflicts = evaluator.getNumberOfConflicts();
+            individual.setConflicts(conflicts);
+            Instrumentation.end(Instrumentation.Phase.EVALUATE_CONSTRAINTS, mark);
+
+            sumTime += duration;
+            if (duration < bestTime || 0 == bestTime) {
+                bestTime = duration;
+            }
+            if (duration > worstTime || 0 == worstTime) {
+                worstTime = duration;
+            }
+            normalizedTime = Math.min(normalizedTime, duration / maxDuration);
+            sumConflicts += conflicts;
+            leastConflicts = Math.min(leastConflicts, conflicts);
+            mostConflicts = Math.max(mostConflicts, conflicts);
+        }
+
+        void merge(Tally other) {
+            sumTime += other.sumTime;
+            if (other.bestTime != 0 && (other.bestTime < bestTime || 0 == bestTime)) {
+                bestTime = other.bestTime;
+            }
+            if (other.worstTime > worstTime) {
+                worstTime = other.worstTime;
+            }
+            normalizedTime = Math.min(normalizedTime, other.normalizedTime);
+            sumConflicts += other.sumConflicts;
+            leastConflicts = Math.min(leastConflicts, other.leastConflicts);
+            mostConflicts = Math.max(mostConflicts, other.mostConflicts);
+        }
+    }
+
+    /**
+     * Returns the individual with the shortest duration, ties broken by number of conflicts.
+     * An individual of a store is loaded into a new schedule.
+     */
+    Individual getBestIndividual() {
+        if (store != null) {
+            PopulationStore.Cursor best = store.cursor().at(0);
+            PopulationStore.Cursor cursor = store.cursor();
+            for (int i = 1; i < store.size(); i++) {
+                if (cursor.at(i).compareTo(best) < 0) {
+                    best.at(i);
+                }
+            }
+            Schedule schedule = store.newSchedule();
+            best.load(schedule);
+            Individual individual = new Individual(schedule);
+            individual.setDuration(best.getDuration());
+            individual.setConflicts(best.getConflicts());
+            return individual;
+        }
+        Individual best = null;
+        for (Individual individual : individuals) {
+            if (best == null || FITNESS_ORDER.compare(individual, best) < 0) {
+                best = individual;
+            }
+        }
+        return best;
+    }
+
     double roundTwoDecimals(double d) {
-        DecimalFormat twoDForm = new DecimalFormat("#.##");
-        return Double.parseDouble(twoDForm.format(d));
+        return Math.round(d * 100) / 100.0;
     }
 
     /**
@@ -100,8 +287,54 @@ public class Population {
         return individuals;
     }
 
+    /**
+     * Number of individuals, on the heap or in the store.
+     */
+    public int size() {
+        return store != null ? store.size() : individuals.size();
+    }
+
+    PopulationStore getStore() {
+        return store;
+    }
+
     public void setIndividuals(ArrayList<Individual> individuals) {
         this.individuals = individuals;
     }
+
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    public double getBestTime() {
+        return bestTime;
+    }
+
+    public double getWorstTime() {
+        return worstTime;
+    }
+
+    public double getAvgTime() {
+        return avgTime;
+    }
+
+    public int getAvgConflicts() {
+        return avgConflicts;
+    }
+
+    /**
+     * Optimality gap of the best time in percent, set by setLowerBounds after evaluation.
+     */
+    public double getGap() {
+        return gap;
+    }
+
+    void setLowerBounds(LowerBounds lowerBounds) {
+        this.gap = roundTwoDecimals(lowerBounds.getGap(bestTime) * 100);
+    }
 }
 
@@ -0,0 +1,211 @@
+import java.nio.ByteBuffer;
+
+
+/**
+ * Off-heap storage of the individuals of a population, for very large populations: every individual is
+ * a fixed-stride record in direct ByteBuffer slabs, so it costs no object headers and the garbage collector
+ * never scans it. Records are read and written through the flyweight Cursor, which moves between records.
+ * <p>
+ * Record layout (stride rounded up to 8 bytes):
+ * <pre>
+ *     duration     double
+ *     conflicts    int
+ *     order        short per activity, activity indexes in schedule order
+ *     start        int per activity, by activity index
+ *     slotResource short per slot
+ *     finish       int per resource
+ *     current      short per resource, current activity id
+ * </pre>
+ * A slab holds whole records and at most SLAB_BYTES, so stores can be larger than one ByteBuffer.
+ * Instances are limited to Short.MAX_VALUE activities and resources.
+ */
+public class PopulationStore {
+
+    private static final int SLAB_BYTES = 1 << 30;
+    private static final int DURATION = 0;
+    private static final int CONFLICTS = 8;
+    private static final int ORDER = 12;
+
+    private final Schedule template;
+    private final ProblemModel model;
+    private final int size;
+    private final int startOffset;
+    private final int slotOffset;
+    private final int finishOffset;
+    private final int currentOffset;
+    private final int stride;
+    private final int recordsPerSlab;
+    private final ByteBuffer[] slabs;
+    private final Schedule scratch;
+
+    /**
+     * Store of given number of individuals of the instance of the template schedule.
+     */
+    public PopulationStore(Schedule template, int size) {
+        this.template = template;
+        this.model = template.getModel();
+        this.size = size;
+        if (model.getNumActivities() > Short.MAX_VALUE || model.getNumResources() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Instance too large for a population store");
+        }
+        startOffset = ORDER + 2 * model.getNumActivities();
+        slotOffset = startOffset + 4 * model.getNumActivities();
+        finishOffset = slotOffset + 2 * model.getNumSlots();
+        currentOffset = finishOffset + 4 * model.getNumResources();
+        stride = (currentOffset + 2 * model.getNumResources() + 7) & ~7;
+        recordsPerSlab = SLAB_BYTES / stride;
+        slabs = new ByteBuffer[(size + recordsPerSlab - 1) / recordsPerSlab];
+        for (int i = 0; i < slabs.length; i++) {
+            int records = Math.min(recordsPerSlab, size - i * recordsPerSlab);
+            slabs[i] = ByteBuffer.allocateDirect(records * stride);
+        }
+        scratch = newSchedule();
+    }
+
+    /**
+     * New schedule of the instance, to load records into.
+     */
+    Schedule newSchedule() {
+        return template.copy(template.getActivities());
+    }
+
+    /**
+     * Schedule for loading records during evaluation, shared by all users of the store.
+     */
+    Schedule getScratch() {
+        return scratch;
+    }
+
+    /**
+     * Resets the schedule to the template: activities in instance order at their earliest start, nothing assigned.
+     */
+    void reset(Schedule schedule) {
+        schedule.copyFrom(template.getActivities(), template);
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes of all records.
+     */
+    public long getBytes() {
+        return (long) size * stride;
+    }
+
+    /**
+     * Flyweight accessor of one record at a time.
+     */
+    final class Cursor {
+
+        private ByteBuffer slab;
+        private int base;
+
+        private Cursor() {
+        }
+
+        Cursor at(int record) {
+            slab = slabs[record / recordsPerSlab];
+            base = (record % recordsPerSlab) * stride;
+            return this;
+        }
+
+        double getDuration() {
+            return slab.getDouble(base + DURATION);
+        }
+
+        void setDuration(double duration) {
+            slab.putDouble(base + DURATION, duration);
+        }
+
+        int getConflicts() {
+            return slab.getInt(base + CONFLICTS);
+        }
+
+        void setConflicts(int conflicts) {
+            slab.putInt(base + CONFLICTS, conflicts);
+        }
+
+        /**
+         * Latest finish of the resources, as Evaluation.getDuration.
+         */
+        int getMakespan() {
+            int makespan = 0;
+            for (int r = 0; r < model.getNumResources(); r++) {
+                makespan = Math.max(makespan, slab.getInt(base + finishOffset + 4 * r));
+            }
+            return makespan;
+        }
+
+        /**
+         * Orders, same as Population.FITNESS_ORDER.
+         */
+        int compareTo(Cursor cursor) {
+            int order = Double.compare(getDuration(), cursor.getDuration());
+            return order != 0 ? order : Integer.compare(getConflicts(), cursor.getConflicts());
+        }
+
+        /**
+         * Writes the record into the schedule, which has to belong to the instance of the store.
+         */
+        void load(Schedule schedule) {
+            Activity[] activities = schedule.getActivities();
+            int[] start = schedule.getStartTimes();
+            int[] slotResource = schedule.getSlotResources();
+            int[] finish = schedule.getResourceFinishTimes();
+            int[] currentActivityId = schedule.getCurrentActivityIds();
+            for (int i = 0; i < activities.length; i++) {
+                activities[i] = schedule.getActivity(slab.getShort(base + ORDER + 2 * i) + 1);
+                start[i] = slab.getInt(base + startOffset + 4 * i);
+            }
+            for (int s = 0; s < slotResource.length; s++) {
+                slotResource[s] = slab.getShort(base + slotOffset + 2 * s);
+            }
+            for (int r = 0; r < finish.length; r++) {
+                finish[r] = slab.getInt(base + finishOffset + 4 * r);
+                currentActivityId[r] = slab.getShort(base + currentOffset + 2 * r);
+            }
+        }
+
+        /**
+         * Writes start times and assignments of the record into the schedule, leaving its order and resources.
+         */
+        void loadAssignments(Schedule schedule) {
+            int[] start = schedule.getStartTimes();
+            int[] slotResource = schedule.getSlotResources();
+            for (int a = 0; a < start.length; a++) {
+                start[a] = slab.getInt(base + startOffset + 4 * a);
+            }
+            for (int s = 0; s < slotResource.length; s++) {
+                slotResource[s] = slab.getShort(base + slotOffset + 2 * s);
+            }
+        }
+
+        /**
+         * Writes the schedule into the record.
+         */
+        void store(Schedule schedule) {
+            Activity[] activities = schedule.getActivities();
+            int[] start = schedule.getStartTimes();
+            int[] slotResource = schedule.getSlotResources();
+            int[] finish = schedule.getResourceFinishTimes();
+            int[] currentActivityId = schedule.getCurrentActivityIds();
+            for (int i = 0; i < activities.length; i++) {
+                slab.putShort(base + ORDER + 2 * i, (short) activities[i].getIndex());
+                slab.putInt(base + startOffset + 4 * i, start[i]);
+            }
+            for (int s = 0; s < slotResource.length; s++) {
+                slab.putShort(base + slotOffset + 2 * s, (short) slotResource[s]);
+            }
+            for (int r = 0; r < finish.length; r++) {
+                slab.putInt(base + finishOffset + 4 * r, finish[r]);
+                slab.putShort(base + currentOffset + 2 * r, (short) currentActivityId[r]);
+            }
+        }
+    }
+}
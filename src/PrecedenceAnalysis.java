@@ -0,0 +1,100 @@
+/**
+ * Precedence structure of an instance: a topological order of the activities, heads (earliest starts)
+ * and tails (least time from the finish of an activity to the end of the project).
+ * Precedence follows ProblemModel.getEarliestTime: an activity starts a time unit after its predecessors finish,
+ * or when a predecessor without duration is reached.
+ * <p>
+ * After an InstanceDiff the analysis is reused as it is if the diff changes no duration and no precedence,
+ * and its topological order is reused if it changes only durations.
+ */
+public class PrecedenceAnalysis {
+
+    private final int[] duration;
+    private final int[] order;
+    private final int[] head;
+    private final int[] tail;
+
+    public PrecedenceAnalysis(ProblemModel model) {
+        this(model, topologicalOrder(model));
+    }
+
+    private PrecedenceAnalysis(ProblemModel model, int[] order) {
+        int numActivities = model.getNumActivities();
+        this.duration = new int[numActivities];
+        for (int i = 0; i < numActivities; i++) {
+            duration[i] = model.getDuration(i);
+        }
+        this.order = order;
+        this.head = new int[numActivities];
+        this.tail = new int[numActivities];
+        for (int i : order) {
+            for (int p = 0; p < model.getNumPredecessors(i); p++) {
+                int predecessor = model.getPredecessor(i, p);
+                head[i] = Math.max(head[i], head[predecessor] + duration[predecessor] + gapAfter(predecessor));
+            }
+        }
+        for (int o = order.length - 1; o >= 0; o--) {
+            int i = order[o];
+            int rest = duration[i] + tail[i];
+            if (rest > 0) {
+                for (int p = 0; p < model.getNumPredecessors(i); p++) {
+                    int predecessor = model.getPredecessor(i, p);
+                    tail[predecessor] = Math.max(tail[predecessor], gapAfter(predecessor) + rest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Analysis of the model changed by the diff, reusing as much of this one as the diff leaves valid.
+     */
+    PrecedenceAnalysis update(ProblemModel model, InstanceDiff diff) {
+        if (diff.changesPrecedences()) {
+            return new PrecedenceAnalysis(model);
+        }
+        if (diff.changesDurations()) {
+            return new PrecedenceAnalysis(model, order);
+        }
+        return this;
+    }
+
+    private static int[] topologicalOrder(ProblemModel model) {
+        int[] order = new int[model.getNumActivities()];
+        boolean[] visited = new boolean[order.length];
+        int[] position = {0};
+        for (int i = 0; i < order.length; i++) {
+            visit(i, model, visited, order, position);
+        }
+        return order;
+    }
+
+    private static void visit(int i, ProblemModel model, boolean[] visited, int[] order, int[] position) {
+        if (visited[i]) {
+            return;
+        }
+        visited[i] = true;
+        for (int p = 0; p < model.getNumPredecessors(i); p++) {
+            visit(model.getPredecessor(i, p), model, visited, order, position);
+        }
+        order[position[0]++] = i;
+    }
+
+    private int gapAfter(int activity) {
+        return duration[activity] == 0 ? 0 : 1;
+    }
+
+    /**
+     * Activity indexes, every activity after its predecessors.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    public int[] getHeads() {
+        return head;
+    }
+
+    public int[] getTails() {
+        return tail;
+    }
+}
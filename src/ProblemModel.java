@@ -0,0 +1,207 @@
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Definition of an MSPSP instance as flat arrays (structure of arrays), shared by all schedules of the instance
+ * and never changed. Activity, RequiredSkill, Skill and Resource are thin views over it and over the solution
+ * arrays of a Schedule.
+ * <p>
+ * Activities are indexed by id - 1, resources by their id. Skill units required by the activities are numbered
+ * as slots, activity by activity and skill by skill: the units of skill k required by activity a are the slots
+ * sreqOffset[a * numSkills + k] until sreqOffset[a * numSkills + k + 1].
+ * Mastery is a bitmap of ceil(numSkills / 64) words per resource.
+ */
+public final class ProblemModel {
+
+    private final int minMakespan;
+    private final int maxMakespan;
+    private final int numActivities;
+    private final int numSkills;
+    private final int numResources;
+    private final int[] duration;
+    private final int[] sreqOffset;
+    private final int[] slotSkill;
+    private final int[] slotActivity;
+    private final int[] predecessorOffset;
+    private final int[] predecessors;
+    private final Map<Integer, Set<Integer>> predecessorIds;
+    private final int masteryWords;
+    private final long[] mastery;
+    private final int maxSlots;
+
+    /**
+     * @param required       - units of every skill required by every activity
+     * @param mastery        - skills mastered by every resource
+     * @param predecessorIds - ids of predecessors by activity id, activities without predecessors are missing
+     */
+    public ProblemModel(int minMakespan, int maxMakespan, int[] duration, int[][] required, boolean[][] mastery,
+                        Map<Integer, Set<Integer>> predecessorIds) {
+        this.minMakespan = minMakespan;
+        this.maxMakespan = maxMakespan;
+        this.numActivities = duration.length;
+        this.numSkills = numActivities == 0 ? 0 : required[0].length;
+        this.numResources = mastery.length;
+        this.duration = duration;
+        this.predecessorIds = predecessorIds;
+
+        sreqOffset = new int[numActivities * numSkills + 1];
+        int maxSlots = 0;
+        for (int a = 0; a < numActivities; a++) {
+            for (int k = 0; k < numSkills; k++) {
+                sreqOffset[a * numSkills + k + 1] = sreqOffset[a * numSkills + k] + required[a][k];
+            }
+            maxSlots = Math.max(maxSlots, getEndSlot(a) - getFirstSlot(a));
+        }
+        this.maxSlots = maxSlots;
+        slotSkill = new int[sreqOffset[numActivities * numSkills]];
+        slotActivity = new int[slotSkill.length];
+        for (int a = 0; a < numActivities; a++) {
+            for (int k = 0; k < numSkills; k++) {
+                for (int s = getFirstSlot(a, k); s < getEndSlot(a, k); s++) {
+                    slotSkill[s] = k;
+                    slotActivity[s] = a;
+                }
+            }
+        }
+
+        predecessorOffset = new int[numActivities + 1];
+        for (int a = 0; a < numActivities; a++) {
+            Set<Integer> ids = predecessorIds.get(a + 1);
+            predecessorOffset[a + 1] = predecessorOffset[a] + (ids == null ? 0 : ids.size());
+        }
+        predecessors = new int[predecessorOffset[numActivities]];
+        for (int a = 0; a < numActivities; a++) {
+            Set<Integer> ids = predecessorIds.get(a + 1);
+            if (ids != null) {
+                int p = predecessorOffset[a];
+                for (int id : ids) {
+                    predecessors[p++] = id - 1;
+                }
+            }
+        }
+
+        masteryWords = (numSkills + 63) >>> 6;
+        this.mastery = new long[numResources * masteryWords];
+        for (int r = 0; r < numResources; r++) {
+            for (int k = 0; k < numSkills; k++) {
+                if (mastery[r][k]) {
+                    this.mastery[r * masteryWords + (k >>> 6)] |= 1L << k;
+                }
+            }
+        }
+    }
+
+    public boolean masters(int resource, int skill) {
+        return (mastery[resource * masteryWords + (skill >>> 6)] & 1L << skill) != 0;
+    }
+
+    /**
+     * Earliest start of activity a after its predecessors, given start times of all activities:
+     * a time unit after the last of them finishes, activities without duration only have to be reached.
+     */
+    int getEarliestTime(int a, int[] start) {
+        int earliest = 0;
+        for (int p = predecessorOffset[a]; p < predecessorOffset[a + 1]; p++) {
+            int predecessor = predecessors[p];
+            int predecessorFinish = start[predecessor] + duration[predecessor];
+            int predecessorEarliest = duration[predecessor] == 0 ? predecessorFinish : predecessorFinish + 1;
+            if (predecessorEarliest > earliest) {
+                earliest = predecessorEarliest;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Getters.
+     */
+    public int getMinMakespan() {
+        return minMakespan;
+    }
+
+    public int getMaxMakespan() {
+        return maxMakespan;
+    }
+
+    public int getNumActivities() {
+        return numActivities;
+    }
+
+    public int getNumSkills() {
+        return numSkills;
+    }
+
+    public int getNumResources() {
+        return numResources;
+    }
+
+    public int getNumSlots() {
+        return slotSkill.length;
+    }
+
+    /**
+     * Most slots required by a single activity.
+     */
+    public int getMaxSlots() {
+        return maxSlots;
+    }
+
+    public int getDuration(int a) {
+        return duration[a];
+    }
+
+    public int getFirstSlot(int a) {
+        return sreqOffset[a * numSkills];
+    }
+
+    public int getEndSlot(int a) {
+        return sreqOffset[(a + 1) * numSkills];
+    }
+
+    public int getFirstSlot(int a, int skill) {
+        return sreqOffset[a * numSkills + skill];
+    }
+
+    public int getEndSlot(int a, int skill) {
+        return sreqOffset[a * numSkills + skill + 1];
+    }
+
+    public int getRequired(int a, int skill) {
+        return getEndSlot(a, skill) - getFirstSlot(a, skill);
+    }
+
+    public int getSlotSkill(int slot) {
+        return slotSkill[slot];
+    }
+
+    public int getSlotActivity(int slot) {
+        return slotActivity[slot];
+    }
+
+    public int getNumPredecessors(int a) {
+        return predecessorOffset[a + 1] - predecessorOffset[a];
+    }
+
+    /**
+     * Index of the p-th predecessor of activity a.
+     */
+    public int getPredecessor(int a, int p) {
+        return predecessors[predecessorOffset[a] + p];
+    }
+
+    /**
+     * Ids of predecessors of activity a, null if it has none.
+     */
+    public Set<Integer> getPredecessorIds(int a) {
+        return predecessorIds.get(a + 1);
+    }
+
+    int[] getDurations() {
+        return duration;
+    }
+
+    int[] getSlotSkills() {
+        return slotSkill;
+    }
+}
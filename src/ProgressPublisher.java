@@ -0,0 +1,272 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Publishes the progress of a solver run, one Progress per generation, to Flow subscribers.
+ * It is passed to Solver.run as the listener (or chained to another one with andThen) and
+ * closed when the run ends, which completes the subscriptions.
+ * <pre>
+ *     ProgressPublisher publisher = new ProgressPublisher(solver, termination);
+ *     publisher.subscribe(subscriber);
+ *     solver.run(termination, publisher);
+ *     publisher.close();
+ * </pre>
+ * The solver thread never waits for a subscriber: every subscription holds at most one undelivered Progress,
+ * a newer one replaces it, so a slow subscriber gets the latest progress whenever it requests more and misses
+ * the generations in between. A replaced improvement is not lost, as every Progress carries the best individual
+ * found so far and is marked improved if any Progress it replaced was. Signals are delivered on the executor,
+ * serially per subscription. A subscriber can stop the run early by Solver.stop.
+ */
+public class ProgressPublisher implements Flow.Publisher<ProgressPublisher.Progress>, Consumer<Population>,
+        AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ProgressPublisher.class.getName());
+
+    private final Solver solver;
+    private final TerminationCriteria termination;
+    private final Executor executor;
+    private final List<ProgressSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+    private Individual published;
+
+    public ProgressPublisher(Solver solver, TerminationCriteria termination) {
+        this(solver, termination, ForkJoinPool.commonPool());
+    }
+
+    public ProgressPublisher(Solver solver, TerminationCriteria termination, Executor executor) {
+        this.solver = solver;
+        this.termination = termination;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Progress> subscriber) {
+        ProgressSubscription subscription = new ProgressSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Offers the progress after a generation to every subscription, called by the solver.
+     */
+    @Override
+    public void accept(Population population) {
+        Individual best = solver.getBestIndividual();
+        boolean improved = best != null
+                && (published == null || Population.FITNESS_ORDER.compare(best, published) < 0);
+        if (improved) {
+            published = best;
+        }
+        Progress progress = new Progress(termination.getGeneration(), termination.getEvaluations(),
+                termination.getElapsedMillis(), population.getBestTime(), population.getAvgTime(),
+                population.getWorstTime(), population.getAvgConflicts(), population.getGap(), published, improved);
+        for (ProgressSubscription subscription : subscriptions) {
+            subscription.offer(progress);
+        }
+    }
+
+    public int getNumberOfSubscribers() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Completes every subscription once its last Progress is delivered, later subscribers are completed at once.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ProgressSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Progress of a run after a generation: statistics of the population and the best individual found so far.
+     */
+    public static final class Progress {
+        private final int generation;
+        private final long evaluations;
+        private final long elapsedMillis;
+        private final double bestTime;
+        private final double avgTime;
+        private final double worstTime;
+        private final int avgConflicts;
+        private final double gap;
+        private final Individual best;
+        private final boolean improved;
+
+        Progress(int generation, long evaluations, long elapsedMillis, double bestTime, double avgTime,
+                 double worstTime, int avgConflicts, double gap, Individual best, boolean improved) {
+            this.generation = generation;
+            this.evaluations = evaluations;
+            this.elapsedMillis = elapsedMillis;
+            this.bestTime = bestTime;
+            this.avgTime = avgTime;
+            this.worstTime = worstTime;
+            this.avgConflicts = avgConflicts;
+            this.gap = gap;
+            this.best = best;
+            this.improved = improved;
+        }
+
+        /**
+         * This progress replacing an undelivered older one, improved if either is.
+         */
+        Progress replacing(Progress older) {
+            if (improved || !older.improved) {
+                return this;
+            }
+            return new Progress(generation, evaluations, elapsedMillis, bestTime, avgTime, worstTime, avgConflicts,
+                    gap, best, true);
+        }
+
+        public int getGeneration() {
+            return generation;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getBestTime() {
+            return bestTime;
+        }
+
+        public double getAvgTime() {
+            return avgTime;
+        }
+
+        public double getWorstTime() {
+            return worstTime;
+        }
+
+        public int getAvgConflicts() {
+            return avgConflicts;
+        }
+
+        public double getGap() {
+            return gap;
+        }
+
+        /**
+         * Best individual found so far, it does not change afterwards. Null before the solver has one.
+         */
+        public Individual getBest() {
+            return best;
+        }
+
+        /**
+         * True if the best individual improved since the previous Progress delivered to the subscriber.
+         */
+        public boolean isImproved() {
+            return improved;
+        }
+
+        @Override
+        public String toString() {
+            return generation + ";" + evaluations + ";" + elapsedMillis + ";" + bestTime + ";" + avgTime + ";"
+                    + worstTime + ";" + avgConflicts + ";" + gap + ";" + improved;
+        }
+    }
+
+    /**
+     * Subscription with a single slot for the undelivered Progress. Delivery runs on the executor while
+     * there is demand and something to deliver, at most one delivery task at a time.
+     */
+    private final class ProgressSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Progress> subscriber;
+        private final AtomicReference<Progress> pending = new AtomicReference<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger signals = new AtomicInteger();
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        ProgressSubscription(Flow.Subscriber<? super Progress> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(Progress progress) {
+            pending.getAndUpdate(older -> older == null ? progress : progress.replacing(older));
+            signal();
+        }
+
+        void complete() {
+            completed = true;
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request " + n);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void signal() {
+            if (signals.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::deliver);
+                } catch (RejectedExecutionException e) {
+                    LOGGER.log(Level.SEVERE, "Delivering progress failed: " + e);
+                    cancel();
+                }
+            }
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                if (!cancelled && error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                }
+                while (!cancelled && demand.get() > 0) {
+                    Progress progress = pending.getAndSet(null);
+                    if (progress == null) {
+                        break;
+                    }
+                    demand.getAndUpdate(d -> d == Long.MAX_VALUE ? d : d - 1);
+                    try {
+                        subscriber.onNext(progress);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.SEVERE, "Subscriber failed: " + e);
+                        cancel();
+                    }
+                }
+                if (!cancelled && completed && pending.get() == null) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+                missed = signals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -9,41 +10,87 @@ public class RandomAlgorithm {
 
     /**
      * Perform scheduling: assign activities to resources by taking available resources randomly.
+     * Skill units of an activity are staffed together by a maximum matching between the units and the
+     * resources free at its start time, so an early choice never takes a resource a later unit needed.
+     * The activity is delayed only when no staffing exists at that time, until the first time one does.
      */
-    void schedule(Schedule schedule) {
-        Activity[] activities = schedule.getActivities();
-        Random generator = new Random();
-        for (Activity activity : activities) {
-            Set<Resource> assignedResources = new HashSet<>();
+    void schedule(Schedule schedule, RandomGenerator generator) {
+        ProblemModel model = schedule.getModel();
+        int[] start = schedule.getStartTimes();
+        int[] finish = schedule.getResourceFinishTimes();
+        int numResources = model.getNumResources();
+        SkillMatching matching = new SkillMatching();
+        int[] resourceOrder = new int[numResources];
+        for (int i = 0; i < resourceOrder.length; i++) {
+            resourceOrder[i] = i;
+        }
+        int[] offset = new int[model.getMaxSlots() + 1];
+        int[] adjacency = new int[model.getMaxSlots() * numResources];
 
-            RequiredSkill[] requiredSkills = activity.getRequiredSkills();
-            for (RequiredSkill requiredSkill : requiredSkills) {
-                if (requiredSkill.getRequired() > 0) {
-                    for (Skill skill : requiredSkill.getSkills()) {
-                        HashMap<Integer, List<Resource>> resourcesForSkills = schedule.getAvailableResourcesForSkills(activity);
-                        List<Resource> capableResources = resourcesForSkills.get(requiredSkill.getType());
+        for (Activity activity : schedule.getActivities()) {
+            int a = activity.getIndex();
+            int firstSlot = model.getFirstSlot(a);
+            int numSlots = model.getEndSlot(a) - firstSlot;
+            if (numSlots == 0) {
+                if (model.getNumPredecessors(a) > 0) {
+                    schedule.shiftStartTimeForActivity(activity, 0);
+                }
+                continue;
+            }
 
-                        if (capableResources.size() == 0) {
-                            resourcesForSkills = schedule.getCurrentlyUnavailableResourcesForSkills(activity);
-                            capableResources = resourcesForSkills.get(requiredSkill.getType());
-                            if (capableResources.isEmpty()) {
-                                LOGGER.log(Level.SEVERE, "No more available resources, something is wrong!");
-                            }
-                            Resource resource = capableResources.get(generator.nextInt(capableResources.size()));
-                            schedule.shiftStartTimeForActivity(activity, resource.getFinish());
-                            schedule.assign(activity, resource, skill);
-                            assignedResources.add(resource);
-                        } else {
-                            Resource resource = capableResources.get(generator.nextInt(capableResources.size()));
-                            schedule.assign(activity, resource, skill);
-                            assignedResources.add(resource);
+            shuffle(resourceOrder, generator);
+            int time = Math.max(start[a], model.getEarliestTime(a, start));
+            while (true) {
+                for (int s = 0; s < numSlots; s++) {
+                    int skill = model.getSlotSkill(firstSlot + s);
+                    offset[s + 1] = offset[s];
+                    for (int r : resourceOrder) {
+                        if (model.masters(r, skill) && finish[r] < time) {
+                            adjacency[offset[s + 1]++] = r;
                         }
                     }
-                } else if (activity.getPredecessors() != null) {
-                    schedule.shiftStartTimeForActivity(activity, 0);
                 }
+                if (matching.match(numSlots, numResources, offset, adjacency) == numSlots) {
+                    break;
+                }
+                int nextTime = getNextFreeTime(finish, time);
+                if (nextTime < 0) {
+                    LOGGER.log(Level.SEVERE, "No more available resources, something is wrong!");
+                    break;
+                }
+                time = nextTime;
+            }
+
+            start[a] = time;
+            int[] slotMatch = matching.getSlotMatch();
+            for (int s = 0; s < numSlots; s++) {
+                if (slotMatch[s] >= 0) {
+                    schedule.assign(firstSlot + s, slotMatch[s]);
+                    finish[slotMatch[s]] = time + model.getDuration(a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the earliest time after given one at which another resource becomes free, or -1 if all are free.
+     */
+    private int getNextFreeTime(int[] finish, int time) {
+        int next = -1;
+        for (int resourceFinish : finish) {
+            if (resourceFinish >= time && (next < 0 || resourceFinish + 1 < next)) {
+                next = resourceFinish + 1;
             }
-            updateResourceFinishTime(activity, assignedResources);
+        }
+        return next;
+    }
+
+    private void shuffle(int[] array, RandomGenerator generator) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = generator.nextInt(i + 1);
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
         }
     }
 
@@ -59,14 +106,4 @@ public class RandomAlgorithm {
         }
         return minResource;
     }
-
-    /**
-     * Reconfigures starting time of resource by taking into the account the duration of the activity taking that resource.
-     */
-    private void updateResourceFinishTime(Activity activity, Set<Resource> resourceSet) {
-        int start = activity.getStart();
-        for (Resource resource : resourceSet) {
-            resource.setFinish(start + activity.getDuration());
-        }
-    }
 }
@@ -0,0 +1,50 @@
+import java.util.SplittableRandom;
+
+
+/**
+ * Seeded source of independent random streams for the solvers.
+ * A stream depends only on the root seed, its purpose and its position (generation, index),
+ * so the same seed gives the same numbers no matter which or how many threads consume them.
+ * Streams are never shared between threads.
+ */
+public class RandomStreams {
+
+    enum Purpose {
+        INITIALIZATION,
+        BREEDING,
+        OPERATORS,
+        SEARCH
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the stream for given purpose and position. Further independent streams
+     * (e.g. one per operator) are obtained by splitting it in a fixed order.
+     */
+    SplittableRandom stream(Purpose purpose, int generation, int index) {
+        long key = mix(seed + GOLDEN_GAMMA * (purpose.ordinal() + 1));
+        key = mix(key + GOLDEN_GAMMA * (generation + 1L));
+        key = mix(key + GOLDEN_GAMMA * (index + 1L));
+        return new SplittableRandom(key);
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
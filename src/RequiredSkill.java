@@ -1,58 +1,52 @@
 /**
  * Contains an array of Skills of given type required for the certain activity.
+ * View over the slots of the activity in the schedule which owns it.
  */
 public class RequiredSkill {
 
-    private int type;
-    private int required;
+    private final Schedule schedule;
+    private final int activity;
+    private final int type;
     private Skill[] skills;
 
-    public RequiredSkill(int type, int required) {
+    RequiredSkill(Schedule schedule, int activity, int type) {
+        this.schedule = schedule;
+        this.activity = activity;
         this.type = type;
-        this.required = required;
-        this.skills = new Skill[required];
-        for(int i = 0; i < required; i++){
-            skills[i] = new Skill(type);
-        }
-    }
-
-    public RequiredSkill(int type, int required, Skill[] skills) {
-        this.type = type;
-        this.required = required;
-        this.skills = skills;
     }
 
     /**
-     * Getters and setters.
+     * Getters.
      */
     public int getType() {
         return type;
     }
 
-    public void setType(int type) {
-        this.type = type;
-    }
-
     public int getRequired() {
-        return required;
-    }
-
-    public void setRequired(int required) {
-        this.required = required;
+        return schedule.getModel().getRequired(activity, type);
     }
 
+    /**
+     * One skill per required unit, created on first call.
+     */
     public Skill[] getSkills() {
+        if (skills == null) {
+            int firstSlot = schedule.getModel().getFirstSlot(activity, type);
+            Skill[] views = new Skill[getRequired()];
+            for (int i = 0; i < views.length; i++) {
+                views[i] = new Skill(schedule, firstSlot + i, type);
+            }
+            skills = views;
+        }
         return skills;
     }
 
-    public void setSkills(Skill[] skills) {
-        this.skills = skills;
-    }
-
     public int getAssigned() {
+        ProblemModel model = schedule.getModel();
+        int[] slotResource = schedule.getSlotResources();
         int assigned = 0;
-        for (Skill skill : skills) {
-            if (skill.getResourceId() != -1) {
+        for (int s = model.getFirstSlot(activity, type); s < model.getEndSlot(activity, type); s++) {
+            if (slotResource[s] != -1) {
                 assigned++;
             }
         }
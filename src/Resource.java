@@ -1,57 +1,52 @@
-import java.util.Arrays;
-
-
 /**
  * Resource can be assigned to activity if it has one of the required skills.
  * After Schedule is created, resource is assigned with finish field - the time
  * when resource finished its last assigned activity.
+ * <p>
+ * View over the problem model and the solution arrays of the schedule which owns it.
  */
 public class Resource {
 
+    private final Schedule schedule;
     private final int id;
     private Skill[] skills;
-    private int finish;
-    private int currentActivityId;
 
-    public Resource(int id, Skill[] skills) {
+    Resource(Schedule schedule, int id) {
+        this.schedule = schedule;
         this.id = id;
-        this.skills = skills;
-        this.finish = -1;
-        this.currentActivityId = -1;
     }
 
     public boolean hasAvailableSkill(Activity activity, int type) {
-        boolean hasAvailableSkill = skills[type] != null && !hasContributed(activity);
+        boolean hasAvailableSkill = isCapableOf(type) && !hasContributed(activity);
         if (!hasAvailableSkill) return false;
-        if (currentActivityId != -1) { //already assigned to some activity
-            hasAvailableSkill = finish < activity.getStart();
+        if (getCurrentActivityId() != -1) { //already assigned to some activity
+            hasAvailableSkill = getFinish() < activity.getStart();
         }
         return hasAvailableSkill;
     }
 
     public boolean hasCurrentlyUnavailableSkill(Activity activity, int type) {
-        boolean hasSkill = skills[type] != null && !hasContributed(activity);
+        boolean hasSkill = isCapableOf(type) && !hasContributed(activity);
         if (!hasSkill) return false;
-        if (currentActivityId != -1) { //already assigned to some activity
-            return finish >= activity.getStart();
+        if (getCurrentActivityId() != -1) { //already assigned to some activity
+            return getFinish() >= activity.getStart();
         }
         return false;
     }
 
     public boolean isCapableOf(int type) {
-        return skills[type] != null;
+        return schedule.getModel().masters(id, type);
     }
 
     /**
      * Checks if resource has already contributed to given activity.
      */
     public boolean hasContributed(Activity activity) {
-        RequiredSkill[] requiredSkills = activity.getRequiredSkills();
-        for (RequiredSkill requiredSkill : requiredSkills) {
-            for (Skill reqSkill : requiredSkill.getSkills()) {
-                if (reqSkill.getResourceId() == id) {
-                    return true;
-                }
+        ProblemModel model = schedule.getModel();
+        int[] slotResource = activity.getSchedule().getSlotResources();
+        for (int s = model.getFirstSlot(activity.getIndex()); s < model.getEndSlot(activity.getIndex()); s++) {
+            if (slotResource[s] == id) {
+                return true;
             }
         }
         return false;
@@ -64,33 +59,41 @@ public class Resource {
         return id;
     }
 
+    /**
+     * Skills by type, null for skills the resource does not master. Created on first call.
+     */
     public Skill[] getSkills() {
+        if (skills == null) {
+            Skill[] mastered = new Skill[schedule.getNumSkills()];
+            for (int k = 0; k < mastered.length; k++) {
+                if (isCapableOf(k)) {
+                    mastered[k] = new Skill(k);
+                }
+            }
+            skills = mastered;
+        }
         return skills;
     }
 
-    public void setSkills(Skill[] skills) {
-        this.skills = skills;
-    }
-
     public int getFinish() {
-        return finish;
+        return schedule.getResourceFinishTimes()[id];
     }
 
     public void setFinish(int finish) {
-        this.finish = finish;
+        schedule.getResourceFinishTimes()[id] = finish;
     }
 
     public int getCurrentActivityId() {
-        return currentActivityId;
+        return schedule.getCurrentActivityIds()[id];
     }
 
     public void setCurrentActivityId(int currentActivityId) {
-        this.currentActivityId = currentActivityId;
+        schedule.getCurrentActivityIds()[id] = currentActivityId;
     }
 
     public String toString() {
         StringBuilder res = new StringBuilder();
-        for (Skill s : skills) {
+        for (Skill s : getSkills()) {
             res.append(s).append(" ");
         }
         return id + ", " + res;
@@ -102,7 +105,14 @@ public class Resource {
             return false;
         }
         Resource resource = (Resource) r;
-        return id == resource.id &&
-                Arrays.equals(skills, resource.skills);
+        if (id != resource.id || schedule.getNumSkills() != resource.schedule.getNumSkills()) {
+            return false;
+        }
+        for (int k = 0; k < schedule.getNumSkills(); k++) {
+            if (isCapableOf(k) != resource.isCapableOf(k)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Streams the statistics of every generation into a CSV file on a background thread.
+ * The solver copies the statistics into one of a fixed set of rows and hands it over,
+ * the writer formats the row into a reused buffer and writes it out before taking the next one,
+ * so a killed run keeps all rows written so far. Nothing is allocated per generation.
+ * If all rows are waiting to be written, the solver waits for the writer.
+ */
+public class ResultsWriter implements Consumer<Population>, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ResultsWriter.class.getName());
+
+    private static final int ROWS = 64;
+    private static final int ROW_BYTES = 256;
+    private static final String HEADER = "pid;best;worst;avg;avgConflicts;gap\n";
+
+    /**
+     * Statistics of one generation, see Population.toString.
+     */
+    private static final class Row {
+        int id;
+        double bestTime;
+        double worstTime;
+        double avgTime;
+        int avgConflicts;
+        double gap;
+    }
+
+    private final Row end = new Row();
+    private final ArrayBlockingQueue<Row> free = new ArrayBlockingQueue<>(ROWS);
+    private final ArrayBlockingQueue<Row> filled = new ArrayBlockingQueue<>(ROWS + 1);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(ROW_BYTES);
+    private final FileChannel channel;
+    private final Thread thread;
+
+    public ResultsWriter(Path target) throws IOException {
+        channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        for (int i = 0; i < ROWS; i++) {
+            free.add(new Row());
+        }
+        for (int i = 0; i < HEADER.length(); i++) {
+            buffer.put((byte) HEADER.charAt(i));
+        }
+        write();
+        thread = new Thread(this::writeRows, "results-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void accept(Population population) {
+        try {
+            Row row = free.take();
+            row.id = population.getId();
+            row.bestTime = population.getBestTime();
+            row.worstTime = population.getWorstTime();
+            row.avgTime = population.getAvgTime();
+            row.avgConflicts = population.getAvgConflicts();
+            row.gap = population.getGap();
+            filled.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRows() {
+        try {
+            for (Row row = filled.take(); row != end; row = filled.take()) {
+                putInt(row.id);
+                buffer.put((byte) ';');
+                putDecimal(row.bestTime);
+                buffer.put((byte) ';');
+                putDecimal(row.worstTime);
+                buffer.put((byte) ';');
+                putDecimal(row.avgTime);
+                buffer.put((byte) ';');
+                putInt(row.avgConflicts);
+                buffer.put((byte) ';');
+                putDecimal(row.gap);
+                buffer.put((byte) '\n');
+                free.put(row);
+                write();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Writing results failed: " + e);
+        }
+        buffer.clear();
+    }
+
+    private void putInt(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Writes value rounded to two decimals as Double.toString writes such values, e.g. 64.0, 64.5 or 64.03.
+     */
+    private void putDecimal(double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            buffer.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        putInt(hundredths / 100);
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + hundredths / 10 % 10));
+        if (hundredths % 10 != 0) {
+            buffer.put((byte) ('0' + hundredths % 10));
+        }
+    }
+
+    /**
+     * Writes the remaining rows and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            filled.put(end);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
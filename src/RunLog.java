@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Append-only binary log of a run, one fixed size row per generation with typed columns.
+ * The header holds the instance name and the seed, rows follow at HEADER_SIZE with stride ROW_SIZE,
+ * so a column is read at a fixed offset of every row (see RunLogReader) and a row cut short by a killed run
+ * is simply ignored. Numbers are little endian.
+ * As in ResultsWriter, the solver copies the statistics into one of a fixed set of rows and a background thread
+ * writes them out, so the evolution never waits for the file unless all rows are waiting to be written.
+ */
+public class RunLog implements Consumer<Population>, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RunLog.class.getName());
+
+    static final int MAGIC = 0x4d53524c;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 256;
+    static final int MAX_INSTANCE_BYTES = HEADER_SIZE - 24;
+
+    /**
+     * Column offsets within a row.
+     */
+    static final int GENERATION = 0;
+    static final int CONFLICTS = 4;
+    static final int BEST = 8;
+    static final int WORST = 16;
+    static final int AVG = 24;
+    static final int GAP = 32;
+    static final int ELAPSED_NANOS = 40;
+    static final int ROW_SIZE = 48;
+
+    private static final int ROWS = 64;
+
+    /**
+     * Statistics of one generation waiting to be written.
+     */
+    private static final class Row {
+        int generation;
+        int conflicts;
+        double best;
+        double worst;
+        double avg;
+        double gap;
+        long elapsedNanos;
+    }
+
+    private final Row end = new Row();
+    private final ArrayBlockingQueue<Row> free = new ArrayBlockingQueue<>(ROWS);
+    private final ArrayBlockingQueue<Row> filled = new ArrayBlockingQueue<>(ROWS + 1);
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(ROW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final Thread thread;
+    private final long startNanos;
+
+    public RunLog(Path target, String instance, long seed) throws IOException {
+        channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        byte[] name = instance.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_INSTANCE_BYTES) {
+            throw new IllegalArgumentException("Instance name too long: " + instance);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(ROW_SIZE).putLong(seed).putInt(name.length).put(name);
+        header.clear();
+        write(header);
+        for (int i = 0; i < ROWS; i++) {
+            free.add(new Row());
+        }
+        thread = new Thread(this::writeRows, "run-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void accept(Population population) {
+        append(population.getId(), population.getAvgConflicts(), population.getBestTime(), population.getWorstTime(),
+                population.getAvgTime(), population.getGap(), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Hands a row over to the writer, waits only if all rows are waiting to be written.
+     */
+    void append(int generation, int conflicts, double best, double worst, double avg, double gap, long elapsedNanos) {
+        try {
+            Row row = free.take();
+            row.generation = generation;
+            row.conflicts = conflicts;
+            row.best = best;
+            row.worst = worst;
+            row.avg = avg;
+            row.gap = gap;
+            row.elapsedNanos = elapsedNanos;
+            filled.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRows() {
+        try {
+            for (Row row = filled.take(); row != end; row = filled.take()) {
+                buffer.clear();
+                buffer.putInt(GENERATION, row.generation);
+                buffer.putInt(CONFLICTS, row.conflicts);
+                buffer.putDouble(BEST, row.best);
+                buffer.putDouble(WORST, row.worst);
+                buffer.putDouble(AVG, row.avg);
+                buffer.putDouble(GAP, row.gap);
+                buffer.putLong(ELAPSED_NANOS, row.elapsedNanos);
+                free.put(row);
+                try {
+                    write(buffer);
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Writing run log failed: " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes the remaining rows and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            filled.put(end);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+}
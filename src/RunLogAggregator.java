@@ -0,0 +1,181 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * Compares runs stored in run logs (see RunLog): reads all logs found under the given paths in parallel
+ * and prints for every instance, and for all instances together, mean, median and 95% confidence interval
+ * of the best makespan and of the run time. Logs without a complete row are skipped.
+ * <p>
+ * Usage: RunLogAggregator path... or RunLogAggregator --import path... to convert result CSV files
+ * into run logs next to them.
+ */
+public class RunLogAggregator {
+
+    private static final String RUN_LOG_SUFFIX = ".runlog";
+    private static final String CSV_SUFFIX = ".csv";
+    private static final String ALL_INSTANCES = "all";
+
+    /**
+     * Two-sided 95% quantiles of Student's t distribution for 1 to 30 degrees of freedom.
+     */
+    private static final double[] T_QUANTILES = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+            2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064,
+            2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+    private static final double NORMAL_QUANTILE = 1.96;
+
+    /**
+     * Summary of one run.
+     */
+    private static final class Run {
+        final String instance;
+        final double best;
+        final double seconds;
+
+        Run(String instance, double best, double seconds) {
+            this.instance = instance;
+            this.best = best;
+            this.seconds = seconds;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--import")) {
+            for (Path csv : find(Arrays.copyOfRange(args, 1, args.length), CSV_SUFFIX)) {
+                String name = csv.getFileName().toString();
+                importCsv(csv, csv.resolveSibling(name.substring(0, name.length() - CSV_SUFFIX.length())
+                        + RUN_LOG_SUFFIX));
+            }
+            return;
+        }
+        System.out.print(report(find(args, RUN_LOG_SUFFIX)));
+    }
+
+    /**
+     * Table of the statistics of the given run logs, per instance and for all instances together.
+     */
+    static String report(List<Path> logs) {
+        List<Run> runs = logs.parallelStream()
+                .map(RunLogAggregator::summarize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<String, List<Run>> byInstance = new LinkedHashMap<>(new TreeMap<>(runs.stream()
+                .collect(Collectors.groupingByConcurrent(run -> run.instance))));
+        byInstance.put(ALL_INSTANCES, runs);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("instance;runs;meanBest;medianBest;bestCiLow;bestCiHigh;meanSeconds;medianSeconds\n");
+        for (Map.Entry<String, List<Run>> entry : byInstance.entrySet()) {
+            double[] best = entry.getValue().stream().mapToDouble(run -> run.best).toArray();
+            double[] seconds = entry.getValue().stream().mapToDouble(run -> run.seconds).toArray();
+            double halfWidth = confidenceHalfWidth(best);
+            sb.append(entry.getKey()).append(';')
+                    .append(best.length).append(';')
+                    .append(round(mean(best))).append(';')
+                    .append(round(median(best))).append(';')
+                    .append(round(mean(best) - halfWidth)).append(';')
+                    .append(round(mean(best) + halfWidth)).append(';')
+                    .append(round(mean(seconds))).append(';')
+                    .append(round(median(seconds))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static List<Path> find(String[] paths, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String path : paths) {
+            try (Stream<Path> walk = Files.walk(Paths.get(path))) {
+                walk.filter(file -> file.toString().endsWith(suffix)).forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Best makespan and run time of a log, null if it has no rows.
+     */
+    private static Run summarize(Path path) {
+        try {
+            RunLogReader reader = new RunLogReader(path);
+            if (reader.getRows() == 0) {
+                return null;
+            }
+            double best = Double.MAX_VALUE;
+            for (int row = 0; row < reader.getRows(); row++) {
+                best = Math.min(best, reader.getBest(row));
+            }
+            double seconds = reader.getElapsedNanos(reader.getRows() - 1) / 1e9;
+            return new Run(reader.getInstance(), best, seconds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts a result CSV (pid;best;worst;avg;avgConflicts[;gap]) into a run log without timings,
+     * the instance name is taken from the file name res_INSTANCE.csv.
+     */
+    static void importCsv(Path csv, Path target) throws IOException {
+        String instance = csv.getFileName().toString().replaceFirst("^res_", "").replaceFirst("\\.csv$", "");
+        try (BufferedReader reader = Files.newBufferedReader(csv); RunLog runLog = new RunLog(target, instance, 0)) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] values = line.split(";");
+                double gap = values.length > 5 ? Double.parseDouble(values[5]) : 0;
+                runLog.append(Integer.parseInt(values[0]), Integer.parseInt(values[4]), Double.parseDouble(values[1]),
+                        Double.parseDouble(values[2]), Double.parseDouble(values[3]), gap, 0);
+            }
+        }
+    }
+
+    private static double mean(double[] values) {
+        return values.length == 0 ? 0 : Arrays.stream(values).sum() / values.length;
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Half width of the 95% confidence interval of the mean.
+     */
+    private static double confidenceHalfWidth(double[] values) {
+        int n = values.length;
+        if (n < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double sumSquares = 0;
+        for (double value : values) {
+            sumSquares += (value - mean) * (value - mean);
+        }
+        double quantile = n - 1 <= T_QUANTILES.length ? T_QUANTILES[n - 2] : NORMAL_QUANTILE;
+        return quantile * Math.sqrt(sumSquares / (n - 1) / n);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Reads a run log written by RunLog through a memory mapping of the file.
+ * Values are read in place at their column offset, rows are numbered from 0.
+ */
+public class RunLogReader {
+
+    private final MappedByteBuffer buffer;
+    private final String instance;
+    private final long seed;
+    private final int rows;
+
+    public RunLogReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < RunLog.HEADER_SIZE || buffer.getInt(0) != RunLog.MAGIC) {
+            throw new IOException("Not a run log: " + path);
+        }
+        if (buffer.getInt(4) != RunLog.VERSION || buffer.getInt(8) != RunLog.ROW_SIZE) {
+            throw new IOException("Unsupported run log version " + buffer.getInt(4) + ": " + path);
+        }
+        seed = buffer.getLong(12);
+        byte[] name = new byte[buffer.getInt(20)];
+        buffer.get(24, name);
+        instance = new String(name, StandardCharsets.UTF_8);
+        rows = (buffer.capacity() - RunLog.HEADER_SIZE) / RunLog.ROW_SIZE;
+    }
+
+    private int offset(int row, int column) {
+        return RunLog.HEADER_SIZE + row * RunLog.ROW_SIZE + column;
+    }
+
+    /**
+     * Getters.
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getGeneration(int row) {
+        return buffer.getInt(offset(row, RunLog.GENERATION));
+    }
+
+    public int getConflicts(int row) {
+        return buffer.getInt(offset(row, RunLog.CONFLICTS));
+    }
+
+    public double getBest(int row) {
+        return buffer.getDouble(offset(row, RunLog.BEST));
+    }
+
+    public double getWorst(int row) {
+        return buffer.getDouble(offset(row, RunLog.WORST));
+    }
+
+    public double getAvg(int row) {
+        return buffer.getDouble(offset(row, RunLog.AVG));
+    }
+
+    public double getGap(int row) {
+        return buffer.getDouble(offset(row, RunLog.GAP));
+    }
+
+    public long getElapsedNanos(int row) {
+        return buffer.getLong(offset(row, RunLog.ELAPSED_NANOS));
+    }
+}
@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * End-to-end scaling benchmark: runs the genetic algorithm on instances of increasing size
+ * (the n20 instance and instances from InstanceGenerator) with increasing number of cores, and reports
+ * generations and evaluations per second, time to reach a makespan within TARGET_GAP of the lower bound,
+ * peak heap and GC time. Every configuration first runs for the warmup time, then runs repeatedly for
+ * the measurement time, and the medians of the repetitions are reported, with the peak heap of all of them.
+ * Results can be stored as a baseline and later runs compared against it; the harness exits with status 1
+ * if the median throughput of any configuration drops by more than the threshold. No baseline is kept
+ * in the repository, throughput depends on the machine: write one on the machine that runs the comparison.
+ * One core breeds and evaluates one phase after the other, more cores are split between the breeders and
+ * the evaluators of a pipelined generation (see BreedingPipeline), which gives the same populations.
+ * <p>
+ * Usage: ScalingHarness [--baseline file] [--write-baseline file] [--threshold fraction] [--sizes n20,n100]
+ * [--cores 1,2,4] [--millis measurement] [--warmup-millis warmup] [--repetitions r]
+ */
+public class ScalingHarness {
+
+    private static final String INSTANCE_N20 = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+    private static final String HEADER = "size;cores;generationsPerSec;evaluationsPerSec;timeToTargetMillis;peakHeapMB;gcMillis";
+    private static final double TARGET_GAP = 0.5;
+    private static final double DEFAULT_THRESHOLD = 0.2;
+    private static final long DEFAULT_MILLIS = 5_000;
+    private static final long DEFAULT_WARMUP_MILLIS = 3_000;
+    private static final int DEFAULT_REPETITIONS = 5;
+    private static final long SEED = 42;
+    private static final int PIPELINE_CAPACITY = 64;
+
+    /**
+     * Measurements of one configuration.
+     */
+    static final class Result {
+        final String size;
+        final int cores;
+        final double generationsPerSec;
+        final double evaluationsPerSec;
+        final long timeToTargetMillis;
+        final long peakHeapMB;
+        final long gcMillis;
+
+        Result(String size, int cores, double generationsPerSec, double evaluationsPerSec, long timeToTargetMillis,
+               long peakHeapMB, long gcMillis) {
+            this.size = size;
+            this.cores = cores;
+            this.generationsPerSec = generationsPerSec;
+            this.evaluationsPerSec = evaluationsPerSec;
+            this.timeToTargetMillis = timeToTargetMillis;
+            this.peakHeapMB = peakHeapMB;
+            this.gcMillis = gcMillis;
+        }
+
+        String key() {
+            return size + ";" + cores;
+        }
+
+        @Override
+        public String toString() {
+            return size + ";" + cores + ";" + round(generationsPerSec) + ";" + round(evaluationsPerSec) + ";"
+                    + timeToTargetMillis + ";" + peakHeapMB + ";" + gcMillis;
+        }
+
+        static Result parse(String line) {
+            String[] values = line.split(";");
+            return new Result(values[0], Integer.parseInt(values[1]), Double.parseDouble(values[2]),
+                    Double.parseDouble(values[3]), Long.parseLong(values[4]), Long.parseLong(values[5]),
+                    Long.parseLong(values[6]));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baseline = null;
+        Path writeBaseline = null;
+        double threshold = DEFAULT_THRESHOLD;
+        String[] sizes = {"n20", "n100", "n300"};
+        String[] cores = {"1", "2", "4"};
+        long millis = DEFAULT_MILLIS;
+        long warmupMillis = DEFAULT_WARMUP_MILLIS;
+        int repetitions = DEFAULT_REPETITIONS;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--baseline":
+                    baseline = Paths.get(args[i + 1]);
+                    break;
+                case "--write-baseline":
+                    writeBaseline = Paths.get(args[i + 1]);
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--sizes":
+                    sizes = args[i + 1].split(",");
+                    break;
+                case "--cores":
+                    cores = args[i + 1].split(",");
+                    break;
+                case "--millis":
+                    millis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--warmup-millis":
+                    warmupMillis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--repetitions":
+                    repetitions = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        System.out.println(HEADER);
+        for (String size : sizes) {
+            String filename = instance(size);
+            for (String core : cores) {
+                Result result = measure(size, filename, Integer.parseInt(core), warmupMillis, millis, repetitions);
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+
+        if (writeBaseline != null) {
+            StringBuilder sb = new StringBuilder(HEADER).append('\n');
+            for (Result result : results) {
+                sb.append(result).append('\n');
+            }
+            Files.writeString(writeBaseline, sb.toString());
+        }
+        if (baseline != null && !compare(baseline, results, threshold)) {
+            System.exit(1);
+        }
+    }
+
+    private static String instance(String size) throws IOException {
+        if (size.equals("n20")) {
+            return INSTANCE_N20;
+        }
+        int activities = Integer.parseInt(size.substring(1));
+        return new InstanceGenerator(activities, Math.max(4, activities / 5), SEED).writeTemporary().toString();
+    }
+
+    /**
+     * Runs the configuration for the warmup time, discarding the results, then repetitions times for given time.
+     * Returns the medians of the repetitions; the target counts as reached if it is in the median repetition.
+     */
+    static Result measure(String size, String filename, int cores, long warmupMillis, long millis, int repetitions) {
+        run(size, filename, cores, warmupMillis);
+        double[] generationsPerSec = new double[repetitions];
+        double[] evaluationsPerSec = new double[repetitions];
+        double[] timeToTarget = new double[repetitions];
+        double[] gc = new double[repetitions];
+        long peakHeapMB = 0;
+        for (int i = 0; i < repetitions; i++) {
+            Result result = run(size, filename, cores, millis);
+            generationsPerSec[i] = result.generationsPerSec;
+            evaluationsPerSec[i] = result.evaluationsPerSec;
+            timeToTarget[i] = result.timeToTargetMillis < 0 ? Double.POSITIVE_INFINITY : result.timeToTargetMillis;
+            gc[i] = result.gcMillis;
+            peakHeapMB = Math.max(peakHeapMB, result.peakHeapMB);
+        }
+        double medianTimeToTarget = median(timeToTarget);
+        return new Result(size, cores, median(generationsPerSec), median(evaluationsPerSec),
+                Double.isInfinite(medianTimeToTarget) ? -1 : Math.round(medianTimeToTarget), peakHeapMB,
+                Math.round(median(gc)));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    /**
+     * Runs the genetic algorithm for given time on given number of cores.
+     */
+    static Result run(String size, String filename, int cores, long millis) {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(filename);
+        geneticAlgorithm.setSeed(SEED);
+        geneticAlgorithm.enableAdaptiveOperators();
+        if (cores > 1) {
+            geneticAlgorithm.enablePipeline(cores / 2, cores - cores / 2, PIPELINE_CAPACITY);
+        }
+        TerminationCriteria termination = new TerminationCriteria(Integer.MAX_VALUE);
+        termination.setTimeBudgetMillis(millis);
+        double target = geneticAlgorithm.getLowerBounds().getLowerBound() * (1 + TARGET_GAP);
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        long[] timeToTarget = {-1};
+        geneticAlgorithm.run(termination, population -> {
+            Individual best = population.getBestIndividual();
+            if (timeToTarget[0] < 0 && best.getConflicts() == 0 && best.getDuration() <= target) {
+                timeToTarget[0] = (System.nanoTime() - start) / 1_000_000;
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        return new Result(size, cores, termination.getGeneration() / seconds, termination.getEvaluations() / seconds,
+                timeToTarget[0], peakHeap / (1024 * 1024), gcMillis() - gcBefore);
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * Prints configurations whose median generation throughput dropped by more than the threshold,
+     * returns false if there is any.
+     */
+    static boolean compare(Path baseline, List<Result> results, double threshold) throws IOException {
+        Map<String, Result> baselineResults = new HashMap<>();
+        for (String line : Files.readAllLines(baseline)) {
+            if (!line.isEmpty() && !line.startsWith("size;")) {
+                Result result = Result.parse(line);
+                baselineResults.put(result.key(), result);
+            }
+        }
+        boolean passed = true;
+        for (Result result : results) {
+            Result base = baselineResults.get(result.key());
+            if (base == null) {
+                continue;
+            }
+            double change = result.generationsPerSec / base.generationsPerSec - 1;
+            System.out.println(result.key() + ";" + round(base.generationsPerSec) + " -> "
+                    + round(result.generationsPerSec) + " generations/s (" + round(change * 100) + "%)");
+            if (change < -threshold) {
+                System.out.println("REGRESSION " + result.key());
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -1,38 +1,91 @@
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Describes the project definition and also the solution itself - a project schedule.
  * Consists of activities, resources and information about successors.
+ * <p>
+ * The solution is stored in flat arrays next to the shared ProblemModel: start time by activity index,
+ * assigned resource by slot, finish time and current activity by resource. Activities and resources
+ * of the schedule are views over them.
  */
 public class Schedule {
 
+    private final ProblemModel model;
+    private final int[] start;
+    private final int[] slotResource;
+    private final int[] finish;
+    private final int[] currentActivityId;
+    private final Activity[] activityByIndex;
+    private final Resource[] resources;
     private Activity[] activities;
-    private Resource[] resources;
-    private int numSkills;
 
     public Schedule(InstanceLoader instanceLoader) {
-        this.activities = instanceLoader.getActivities();
-        this.resources = instanceLoader.getResources();
-        this.numSkills = instanceLoader.getNumSkills();
-        setEarliestStartTimeForActivities(false);
+        this(instanceLoader.getModel());
+        setEarliestStartTimeForActivities(null);
     }
 
-    public Schedule(Schedule schedule, Activity[] activities) {
-        numSkills = schedule.numSkills;
-        this.activities = activities;
-        this.resources = schedule.resources;
+    private Schedule(ProblemModel model) {
+        this.model = model;
+        start = new int[model.getNumActivities()];
+        slotResource = new int[model.getNumSlots()];
+        finish = new int[model.getNumResources()];
+        currentActivityId = new int[model.getNumResources()];
+        Arrays.fill(start, -1);
+        Arrays.fill(slotResource, -1);
+        Arrays.fill(finish, -1);
+        Arrays.fill(currentActivityId, -1);
+        activityByIndex = new Activity[start.length];
+        for (int a = 0; a < activityByIndex.length; a++) {
+            activityByIndex[a] = new Activity(this, a);
+        }
+        activities = activityByIndex.clone();
+        resources = new Resource[finish.length];
+        for (int r = 0; r < resources.length; r++) {
+            resources[r] = new Resource(this, r);
+        }
+    }
+
+    /**
+     * Creates schedule which owns copies of given activities and of resources of this schedule,
+     * so it can be changed without affecting any other schedule.
+     * Activities may come from different schedules of the instance, every activity has to be given once.
+     */
+    public Schedule copy(Activity[] activities) {
+        Schedule schedule = new Schedule(model);
+        schedule.copyFrom(activities, this);
+        return schedule;
     }
 
     /**
-     * Sets starting time of activity in respect to precedence relations
+     * Overwrites this schedule with copies of given activities and of resources of given schedule, as copy does,
+     * reusing the arrays of this schedule.
      */
-    private void setEarliestStartTimeForActivities(boolean addRandomTime) {
+    public void copyFrom(Activity[] activities, Schedule resources) {
+        for (int i = 0; i < activities.length; i++) {
+            Activity activity = activities[i];
+            int a = activity.getIndex();
+            Schedule source = activity.getSchedule();
+            start[a] = source.start[a];
+            int firstSlot = model.getFirstSlot(a);
+            System.arraycopy(source.slotResource, firstSlot, slotResource, firstSlot, model.getEndSlot(a) - firstSlot);
+            this.activities[i] = activityByIndex[a];
+        }
+        System.arraycopy(resources.finish, 0, finish, 0, finish.length);
+        System.arraycopy(resources.currentActivityId, 0, currentActivityId, 0, currentActivityId.length);
+    }
+
+    /**
+     * Sets starting time of activity in respect to precedence relations,
+     * delayed by a random amount of time when random generator is given.
+     */
+    private void setEarliestStartTimeForActivities(RandomGenerator randomTime) {
         for (Activity activity : activities) {
             int earliest = getEarliestTime(activity);
             activity.setStart(earliest);
         }
 
-        if (addRandomTime) {
+        if (randomTime != null) {
             int latestStartTime = 0;
             for (Activity activity : activities) {
                 if (activity.getStart() > latestStartTime) {
@@ -40,9 +93,8 @@ public class Schedule {
                 }
             }
 
-            Random random = new Random();
             for (Activity activity : activities) {
-                activity.setStart(activity.getStart() + random.nextInt(5));
+                activity.setStart(activity.getStart() + randomTime.nextInt(5));
             }
         }
     }
@@ -54,18 +106,7 @@ public class Schedule {
      * the last of its predecessors have finished.
      */
     public int getEarliestTime(Activity activity) {
-        int earliest = 0;
-        Set<Integer> predecessors = activity.getPredecessors();
-        if (predecessors != null) {
-            for (int p : predecessors) {
-                Activity pred = getActivity(p);
-                int predFinish = pred.getStart() + pred.getDuration();
-                if (predFinish > earliest) {
-                    earliest = predFinish + 1;
-                }
-            }
-        }
-        return earliest;
+        return model.getEarliestTime(activity.getIndex(), start);
     }
 
     /**
@@ -73,21 +114,15 @@ public class Schedule {
      */
     public void assign(Activity activity, Resource resource, Skill skill) {
         skill.setResourceId(resource.getId());
-        updateResource(activity, resource, skill.getType());
+        resource.setCurrentActivityId(activity.getId());
     }
 
     /**
-     * Updates status of the skill reserved by assigning id and sets the current activity taking the resource
+     * Assigns resource to the slot and makes the activity of the slot current activity of the resource.
      */
-    private void updateResource(Activity activity, Resource resource, int skillType) {
-        Skill[] resourceSkills = resource.getSkills();
-        for (Skill resourceSkill : resourceSkills) {
-            if (resourceSkill != null && resourceSkill.getType() == skillType) {
-                resourceSkill.setResourceId(resource.getId());
-                break;
-            }
-        }
-        resource.setCurrentActivityId(activity.getId());
+    void assign(int slot, int resource) {
+        slotResource[slot] = resource;
+        currentActivityId[resource] = model.getSlotActivity(slot) + 1;
     }
 
     /**
@@ -95,11 +130,11 @@ public class Schedule {
      * and shift depending on possible new finish times of predecessors
      */
     public void shiftStartTimeForActivity(Activity activity, int resourceFinishTime) {
-        Set<Integer> predecessors = activity.getPredecessors();
-        int newStart = activity.getStart();
-        for (int p : predecessors) {
-            Activity predecessor = getActivity(p);
-            int predecessorFinish = predecessor.getStart() + predecessor.getDuration();
+        int a = activity.getIndex();
+        int newStart = start[a];
+        for (int p = 0; p < model.getNumPredecessors(a); p++) {
+            int predecessor = model.getPredecessor(a, p);
+            int predecessorFinish = start[predecessor] + model.getDuration(predecessor);
             if (newStart <= predecessorFinish) {
                 newStart = predecessorFinish + 1;
             }
@@ -107,7 +142,7 @@ public class Schedule {
         if (resourceFinishTime > newStart) {
             newStart = resourceFinishTime + 1;
         }
-        activity.setStart(newStart);
+        start[a] = newStart;
     }
 
     /**
@@ -115,7 +150,7 @@ public class Schedule {
      */
     public HashMap<Integer, List<Resource>> getAvailableResourcesForSkills(Activity activity) {
         HashMap<Integer, List<Resource>> resourcesPerSkills = new HashMap<>();
-        for (int i = 0; i < numSkills; i++) {
+        for (int i = 0; i < getNumSkills(); i++) {
             resourcesPerSkills.put(i, new ArrayList<>());
             for (Resource resource : resources) {
                 if (resource.hasAvailableSkill(activity, i)) {
@@ -131,7 +166,7 @@ public class Schedule {
      */
     public HashMap<Integer, List<Resource>> getCurrentlyUnavailableResourcesForSkills(Activity activity) {
         HashMap<Integer, List<Resource>> resourcesPerSkills = new HashMap<>();
-        for (int i = 0; i < numSkills; i++) {
+        for (int i = 0; i < getNumSkills(); i++) {
             resourcesPerSkills.put(i, new ArrayList<>());
             for (Resource resource : resources) {
                 if (resource.hasCurrentlyUnavailableSkill(activity, i)) {
@@ -149,7 +184,7 @@ public class Schedule {
      */
     public HashMap<Integer, List<Resource>> getAvailableResourcesForSkills(Activity activity, int time) {
         HashMap<Integer, List<Resource>> resourcesPerSkills = new HashMap<>();
-        for (int i = 0; i < numSkills; i++) {
+        for (int i = 0; i < getNumSkills(); i++) {
             resourcesPerSkills.put(i, new ArrayList<>());
             for (Resource resource : resources) {
                 if (resource.hasAvailableSkill(activity, i) && time >= resource.getFinish()) {
@@ -162,11 +197,10 @@ public class Schedule {
 
     /**
      * Finds a resource from the list freeResources with the earliest
-     * finish time of its work
-     * (could be used for Greedy approach)
+     * finish time of its work (used by GreedyAlgorithm)
      */
     public Resource findFirstFreeResource(List<Resource> freeResources) {
-        if (freeResources == null) {
+        if (freeResources == null || freeResources.isEmpty()) {
             return null;
         }
         Resource result = freeResources.get(0);
@@ -184,49 +218,17 @@ public class Schedule {
      * Cleans time for resources and activities.
      */
     public void cleanAll() {
-        for (Activity activity : activities) {
-            activity.setStart(-1);
-            for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
-                if (requiredSkill.getRequired() > 0) {
-                    for (Skill skill : requiredSkill.getSkills()) {
-                        if (skill != null) {
-                            skill.setResourceId(-1);
-                        }
-                    }
-                }
-            }
-        }
-        for (Resource resource : resources) {
-            for (Skill skill : resource.getSkills()) {
-                skill.setResourceId(-1);
-            }
-            resource.setFinish(-1);
-        }
+        Arrays.fill(start, -1);
+        Arrays.fill(slotResource, -1);
+        Arrays.fill(finish, -1);
     }
 
     public void cleanResources() {
-        for (Resource resource : resources) {
-            for (Skill skill : resource.getSkills()) {
-                if (skill != null) {
-                    skill.setResourceId(-1);
-                }
-            }
-            resource.setFinish(-1);
-        }
+        Arrays.fill(finish, -1);
     }
 
     public void cleanActivities() {
-        for (Activity activity : activities) {
-            for (RequiredSkill requiredSkill : activity.getRequiredSkills()) {
-                if (requiredSkill.getRequired() > 0) {
-                    for (Skill skill : requiredSkill.getSkills()) {
-                        if (skill != null) {
-                            skill.setResourceId(-1);
-                        }
-                    }
-                }
-            }
-        }
+        Arrays.fill(slotResource, -1);
     }
 
     /**
@@ -236,6 +238,9 @@ public class Schedule {
         return activities;
     }
 
+    /**
+     * Reorders the activities, which have to be the activities of this schedule.
+     */
     public void setActivities(Activity[] activities) {
         this.activities = activities;
     }
@@ -244,33 +249,38 @@ public class Schedule {
         return resources;
     }
 
-    public void setResources(Resource[] resources) {
-        this.resources = resources;
+    public int getNumSkills() {
+        return model.getNumSkills();
     }
 
-    public int getNumSkills() {
-        return numSkills;
+    public Activity getActivity(int activityId) {
+        return activityId >= 1 && activityId <= activityByIndex.length ? activityByIndex[activityId - 1] : null;
     }
 
-    public void setNumSkills(int numSkills) {
-        this.numSkills = numSkills;
+    public Resource getResource(int resourceId) {
+        return resourceId >= 0 && resourceId < resources.length ? resources[resourceId] : null;
     }
 
-    public Activity getActivity(int activityId) {
-        for (Activity activity : activities) {
-            if (activity.getId() == activityId) {
-                return activity;
-            }
-        }
-        return null;
+    public ProblemModel getModel() {
+        return model;
     }
 
-    public Resource getResource(int resourceId) {
-        for (Resource r : resources) {
-            if (r.getId() == resourceId) {
-                return r;
-            }
-        }
-        return null;
+    /**
+     * Solution arrays, see the class comment.
+     */
+    int[] getStartTimes() {
+        return start;
+    }
+
+    int[] getSlotResources() {
+        return slotResource;
+    }
+
+    int[] getResourceFinishTimes() {
+        return finish;
+    }
+
+    int[] getCurrentActivityIds() {
+        return currentActivityId;
     }
 }
@@ -0,0 +1,168 @@
+import java.util.Arrays;
+
+
+/**
+ * Repairs a schedule of an instance for the instance changed by an InstanceDiff, keeping as much of it as is
+ * still valid. Activities are placed again one by one (serial schedule generation) in order of their previous
+ * starts among those whose predecessors are placed, each as early as its predecessors and resources allow, also
+ * into gaps. An activity keeps its previous resources when they still master the skill and are free, other skill
+ * units get capable free resources by a matching. Repairing for an empty diff thus compacts a schedule, keeping
+ * the order of starts and previous resources where they are free, while changed parts are shifted or restaffed.
+ */
+public class ScheduleRepair {
+
+    private final ProblemModel model;
+    private final SkillMatching matching = new SkillMatching();
+    private final Occupancy occupancy = new Occupancy();
+    private final int[] offset;
+    private final int[] adjacency;
+    private final boolean[] placed;
+
+    public ScheduleRepair(ProblemModel model) {
+        this.model = model;
+        this.offset = new int[model.getMaxSlots() + 1];
+        this.adjacency = new int[model.getMaxSlots() * model.getNumResources()];
+        this.placed = new boolean[model.getNumActivities()];
+    }
+
+    /**
+     * Writes the repaired previous schedule into the target, a schedule of the changed instance.
+     * The previous schedule has to be of an instance with the same activities and skill requirements.
+     */
+    public void repair(Schedule previous, Schedule target) {
+        int numActivities = model.getNumActivities();
+        int[] previousStart = previous.getStartTimes();
+        int[] previousSlots = previous.getSlotResources();
+        Activity[] previousOrder = previous.getActivities();
+        int[] position = new int[numActivities];
+        for (int i = 0; i < previousOrder.length; i++) {
+            position[previousOrder[i].getIndex()] = i;
+        }
+
+        int[] start = target.getStartTimes();
+        int[] slotResource = target.getSlotResources();
+        int[] finish = target.getResourceFinishTimes();
+        int[] currentActivityId = target.getCurrentActivityIds();
+        Arrays.fill(slotResource, -1);
+        Arrays.fill(finish, -1);
+        Arrays.fill(currentActivityId, -1);
+        Arrays.fill(placed, false);
+        occupancy.reset(model.getNumResources(), getHorizon());
+
+        Activity[] order = new Activity[numActivities];
+        for (int i = 0; i < numActivities; i++) {
+            int a = nextActivity(previousStart, position);
+            placed[a] = true;
+            place(a, model.getEarliestTime(a, start), previousSlots, target);
+            for (int s = model.getFirstSlot(a); s < model.getEndSlot(a); s++) {
+                int r = slotResource[s];
+                if (r >= 0 && start[a] + model.getDuration(a) > finish[r]) {
+                    finish[r] = start[a] + model.getDuration(a);
+                    currentActivityId[r] = a + 1;
+                }
+            }
+            order[i] = target.getActivity(a + 1);
+        }
+        target.setActivities(order);
+    }
+
+    /**
+     * Unplaced activity with all predecessors placed, of the earliest previous start, ties by previous order.
+     */
+    private int nextActivity(int[] previousStart, int[] position) {
+        int next = -1;
+        for (int a = 0; a < placed.length; a++) {
+            if (placed[a] || !predecessorsPlaced(a)) {
+                continue;
+            }
+            if (next < 0 || previousStart[a] < previousStart[next]
+                    || previousStart[a] == previousStart[next] && position[a] < position[next]) {
+                next = a;
+            }
+        }
+        return next;
+    }
+
+    private boolean predecessorsPlaced(int a) {
+        for (int p = 0; p < model.getNumPredecessors(a); p++) {
+            if (!placed[model.getPredecessor(a, p)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts the activity at the first time from given one when all its skill units can be staffed,
+     * preferring previous resources. After a failed matching the next time tried is the first one at which
+     * a capable resource busy now can be free for the whole activity; if there is none, the staffing cannot
+     * improve any more and skill units no resource is capable of stay unassigned.
+     */
+    private void place(int a, int time, int[] previousSlots, Schedule target) {
+        int firstSlot = model.getFirstSlot(a);
+        int numSlots = model.getEndSlot(a) - firstSlot;
+        int duration = model.getDuration(a);
+        while (true) {
+            for (int s = 0; s < numSlots; s++) {
+                int skill = model.getSlotSkill(firstSlot + s);
+                int previousResource = previousSlots[firstSlot + s];
+                offset[s + 1] = offset[s];
+                if (isAvailable(previousResource, skill, time, duration)) {
+                    adjacency[offset[s + 1]++] = previousResource;
+                }
+                for (int r = 0; r < model.getNumResources(); r++) {
+                    if (r != previousResource && isAvailable(r, skill, time, duration)) {
+                        adjacency[offset[s + 1]++] = r;
+                    }
+                }
+            }
+            if (matching.match(numSlots, model.getNumResources(), offset, adjacency) == numSlots) {
+                break;
+            }
+            int next = nextTime(firstSlot, numSlots, time, duration);
+            if (next < 0) {
+                break;
+            }
+            time = next;
+        }
+        target.getStartTimes()[a] = time;
+        int[] slotMatch = matching.getSlotMatch();
+        for (int s = 0; s < numSlots; s++) {
+            if (slotMatch[s] >= 0) {
+                target.getSlotResources()[firstSlot + s] = slotMatch[s];
+                occupancy.occupy(slotMatch[s], time, time + duration);
+            }
+        }
+    }
+
+    private int nextTime(int firstSlot, int numSlots, int time, int duration) {
+        int next = -1;
+        for (int r = 0; r < model.getNumResources(); r++) {
+            for (int s = 0; s < numSlots; s++) {
+                if (model.masters(r, model.getSlotSkill(firstSlot + s))) {
+                    int occupied = occupancy.lastOccupied(r, time, time + duration);
+                    if (occupied >= 0 && (next < 0 || occupied + 1 < next)) {
+                        next = occupied + 1;
+                    }
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    private boolean isAvailable(int resource, int skill, int time, int duration) {
+        return resource >= 0 && model.masters(resource, skill) && occupancy.isFree(resource, time, time + duration);
+    }
+
+    /**
+     * Time by which every activity can be placed: all durations one after another, with gaps after predecessors.
+     */
+    private int getHorizon() {
+        int horizon = model.getNumActivities() + 1;
+        for (int a = 0; a < model.getNumActivities(); a++) {
+            horizon += model.getDuration(a);
+        }
+        return horizon;
+    }
+}
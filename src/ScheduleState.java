@@ -0,0 +1,408 @@
+import java.util.Arrays;
+
+
+/**
+ * Primitive working copy of a Schedule for local search: start time of every activity and the resource
+ * assigned to every skill unit (slot) it requires, with incremental evaluation of moves.
+ * <p>
+ * Activity occupies its resources during [start, start + duration), as checked by ConstraintValidation.
+ * Conflicts are counted as overlapping pairs of activities sharing a resource (once per shared resource)
+ * plus violated precedence relations.
+ * Cost of the state is makespan, with every conflict weighing more than any makespan could.
+ */
+public class ScheduleState {
+
+    private final Schedule schedule;
+    private final int numActivities;
+    private final int numResources;
+    private final int[] duration;
+    private final int[] start;
+    private final int[][] predecessors;
+    private final int[][] successors;
+    private final int[] slotOffset;
+    private final int[] slotSkill;
+    private final int[] slotResource;
+    private final boolean[][] capable;
+    private final long conflictPenalty;
+    private int conflicts;
+
+    /**
+     * Creates state of given schedule, writeTo stores changes back into it.
+     */
+    public ScheduleState(Schedule schedule) {
+        this.schedule = schedule;
+        ProblemModel model = schedule.getModel();
+        Activity[] activities = schedule.getActivities();
+        numActivities = activities.length;
+        numResources = model.getNumResources();
+
+        int[] positionByIndex = new int[numActivities];
+        for (int i = 0; i < numActivities; i++) {
+            positionByIndex[activities[i].getIndex()] = i;
+        }
+        capable = new boolean[numResources][model.getNumSkills()];
+        for (int r = 0; r < numResources; r++) {
+            for (int s = 0; s < model.getNumSkills(); s++) {
+                capable[r][s] = model.masters(r, s);
+            }
+        }
+
+        int[] scheduleStart = schedule.getStartTimes();
+        duration = new int[numActivities];
+        start = new int[numActivities];
+        predecessors = new int[numActivities][];
+        int[] numSuccessors = new int[numActivities];
+        slotOffset = new int[numActivities + 1];
+        for (int i = 0; i < numActivities; i++) {
+            int a = activities[i].getIndex();
+            duration[i] = model.getDuration(a);
+            start[i] = Math.max(0, scheduleStart[a]);
+            predecessors[i] = new int[model.getNumPredecessors(a)];
+            for (int p = 0; p < predecessors[i].length; p++) {
+                predecessors[i][p] = positionByIndex[model.getPredecessor(a, p)];
+                numSuccessors[predecessors[i][p]]++;
+            }
+            slotOffset[i + 1] = slotOffset[i] + model.getEndSlot(a) - model.getFirstSlot(a);
+        }
+        successors = new int[numActivities][];
+        for (int i = 0; i < numActivities; i++) {
+            successors[i] = new int[numSuccessors[i]];
+            numSuccessors[i] = 0;
+        }
+        for (int i = 0; i < numActivities; i++) {
+            for (int p : predecessors[i]) {
+                successors[p][numSuccessors[p]++] = i;
+            }
+        }
+
+        slotSkill = new int[slotOffset[numActivities]];
+        slotResource = new int[slotOffset[numActivities]];
+        int[] scheduleSlotResource = schedule.getSlotResources();
+        long sumDuration = 0;
+        for (int i = 0; i < numActivities; i++) {
+            sumDuration += duration[i];
+            int firstSlot = model.getFirstSlot(activities[i].getIndex());
+            int numSlots = slotOffset[i + 1] - slotOffset[i];
+            System.arraycopy(model.getSlotSkills(), firstSlot, slotSkill, slotOffset[i], numSlots);
+            System.arraycopy(scheduleSlotResource, firstSlot, slotResource, slotOffset[i], numSlots);
+        }
+        conflictPenalty = sumDuration * 2 + 1;
+
+        for (int a = 0; a < numActivities; a++) {
+            for (int b = a + 1; b < numActivities; b++) {
+                conflicts += pairConflicts(a, b);
+            }
+            for (int s = slotOffset[a]; s < slotOffset[a + 1]; s++) {
+                if (slotResource[s] < 0) {
+                    conflicts++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy of the state, problem data is shared.
+     */
+    public ScheduleState(ScheduleState state) {
+        this.schedule = state.schedule;
+        this.numActivities = state.numActivities;
+        this.numResources = state.numResources;
+        this.duration = state.duration;
+        this.predecessors = state.predecessors;
+        this.successors = state.successors;
+        this.slotOffset = state.slotOffset;
+        this.slotSkill = state.slotSkill;
+        this.capable = state.capable;
+        this.conflictPenalty = state.conflictPenalty;
+        this.start = state.start.clone();
+        this.slotResource = state.slotResource.clone();
+        this.conflicts = state.conflicts;
+    }
+
+    /**
+     * Takes start times and assignments of another state of the same schedule.
+     */
+    public void copyFrom(ScheduleState state) {
+        System.arraycopy(state.start, 0, start, 0, numActivities);
+        System.arraycopy(state.slotResource, 0, slotResource, 0, slotResource.length);
+        conflicts = state.conflicts;
+    }
+
+    /**
+     * Creates an evaluated individual with its own copy of the schedule holding this state.
+     */
+    public Individual toIndividual() {
+        Schedule copy = schedule.copy(schedule.getActivities());
+        writeTo(copy);
+        Individual individual = new Individual(copy);
+        Evaluation evaluation = new Evaluation(copy);
+        individual.setDuration(evaluation.getDuration());
+        individual.setConflicts(evaluation.getNumberOfConflicts());
+        return individual;
+    }
+
+    /**
+     * Stores start times and assignments into the schedule and updates finish times of its resources.
+     */
+    public void writeTo() {
+        writeTo(schedule);
+    }
+
+    /**
+     * Stores start times and assignments into a schedule with activities in the same order.
+     */
+    public void writeTo(Schedule target) {
+        ProblemModel model = target.getModel();
+        Activity[] activities = target.getActivities();
+        int[] targetStart = target.getStartTimes();
+        int[] targetSlotResource = target.getSlotResources();
+        int[] finish = target.getResourceFinishTimes();
+        int[] currentActivityId = target.getCurrentActivityIds();
+        Arrays.fill(finish, -1);
+        Arrays.fill(currentActivityId, -1);
+        for (int i = 0; i < numActivities; i++) {
+            int a = activities[i].getIndex();
+            targetStart[a] = start[i];
+            int numSlots = slotOffset[i + 1] - slotOffset[i];
+            System.arraycopy(slotResource, slotOffset[i], targetSlotResource, model.getFirstSlot(a), numSlots);
+            for (int slot = slotOffset[i]; slot < slotOffset[i + 1]; slot++) {
+                int r = slotResource[slot];
+                if (r >= 0 && getFinish(i) > finish[r]) {
+                    finish[r] = getFinish(i);
+                    currentActivityId[r] = a + 1;
+                }
+            }
+        }
+    }
+
+    public long getCost() {
+        return conflicts * conflictPenalty + getMakespan();
+    }
+
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Latest finish of activities which take any resource, as in Evaluation.getDuration.
+     */
+    public int getMakespan() {
+        return makespanWith(-1, 0, -1, 0);
+    }
+
+    /**
+     * Cost after moving activity a to newStart.
+     */
+    long costOfShift(int a, int newStart) {
+        int oldStart = start[a];
+        int before = conflictsOf(a);
+        start[a] = newStart;
+        int after = conflictsOf(a);
+        start[a] = oldStart;
+        return (conflicts - before + after) * conflictPenalty + makespanWith(a, newStart, -1, 0);
+    }
+
+    void shift(int a, int newStart) {
+        int before = conflictsOf(a);
+        start[a] = newStart;
+        conflicts += conflictsOf(a) - before;
+    }
+
+    /**
+     * Cost after exchanging start times of activities a and b.
+     */
+    long costOfSwap(int a, int b) {
+        int startA = start[a];
+        int startB = start[b];
+        int before = conflictsOf(a) + conflictsOf(b) - pairConflicts(a, b);
+        start[a] = startB;
+        start[b] = startA;
+        int after = conflictsOf(a) + conflictsOf(b) - pairConflicts(a, b);
+        start[a] = startA;
+        start[b] = startB;
+        return (conflicts - before + after) * conflictPenalty + makespanWith(a, startB, b, startA);
+    }
+
+    void swap(int a, int b) {
+        int before = conflictsOf(a) + conflictsOf(b) - pairConflicts(a, b);
+        int startA = start[a];
+        start[a] = start[b];
+        start[b] = startA;
+        conflicts += conflictsOf(a) + conflictsOf(b) - pairConflicts(a, b) - before;
+    }
+
+    /**
+     * Cost after giving slot to another resource. Makespan does not change.
+     */
+    long costOfReassign(int slot, int resource) {
+        return (conflicts + reassignDelta(slot, resource)) * conflictPenalty + getMakespan();
+    }
+
+    void reassign(int slot, int resource) {
+        conflicts += reassignDelta(slot, resource);
+        slotResource[slot] = resource;
+    }
+
+    /**
+     * Checks if resource can take the slot: it masters the skill and does not work on the activity already.
+     */
+    boolean canReassign(int slot, int resource) {
+        if (!capable[resource][slotSkill[slot]]) {
+            return false;
+        }
+        return !uses(activityOfSlot(slot), resource);
+    }
+
+    private int reassignDelta(int slot, int resource) {
+        int a = activityOfSlot(slot);
+        int oldResource = slotResource[slot];
+        int delta = oldResource < 0 ? -1 : 0;
+        for (int b = 0; b < numActivities; b++) {
+            if (b != a && overlap(a, b)) {
+                if (uses(b, resource)) {
+                    delta++;
+                }
+                if (oldResource >= 0 && uses(b, oldResource)) {
+                    delta--;
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Conflicts in which activity a takes part.
+     */
+    private int conflictsOf(int a) {
+        int result = 0;
+        for (int b = 0; b < numActivities; b++) {
+            if (b != a && overlap(a, b)) {
+                result += sharedResources(a, b);
+            }
+        }
+        for (int p : predecessors[a]) {
+            if (violatesPrecedence(p, a)) {
+                result++;
+            }
+        }
+        for (int s : successors[a]) {
+            if (violatesPrecedence(a, s)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private int pairConflicts(int a, int b) {
+        int result = overlap(a, b) ? sharedResources(a, b) : 0;
+        for (int p : predecessors[b]) {
+            if (p == a && violatesPrecedence(a, b)) {
+                result++;
+            }
+        }
+        for (int p : predecessors[a]) {
+            if (p == b && violatesPrecedence(b, a)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Successor has to start after the predecessor finishes, as in Schedule.getEarliestTime.
+     * Activities without duration (project start and end) only have to be reached.
+     */
+    private boolean violatesPrecedence(int predecessor, int successor) {
+        int earliest = duration[predecessor] == 0 ? getFinish(predecessor) : getFinish(predecessor) + 1;
+        return start[successor] < earliest;
+    }
+
+    private boolean overlap(int a, int b) {
+        return start[a] < getFinish(b) && start[b] < getFinish(a);
+    }
+
+    private int sharedResources(int a, int b) {
+        int shared = 0;
+        for (int s = slotOffset[a]; s < slotOffset[a + 1]; s++) {
+            int r = slotResource[s];
+            if (r >= 0 && uses(b, r)) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    private boolean uses(int a, int resource) {
+        for (int s = slotOffset[a]; s < slotOffset[a + 1]; s++) {
+            if (slotResource[s] == resource) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int makespanWith(int a, int startA, int b, int startB) {
+        int makespan = 0;
+        for (int i = 0; i < numActivities; i++) {
+            if (slotOffset[i] == slotOffset[i + 1]) {
+                continue;
+            }
+            int activityStart = i == a ? startA : i == b ? startB : start[i];
+            makespan = Math.max(makespan, activityStart + duration[i]);
+        }
+        return makespan;
+    }
+
+    private int activityOfSlot(int slot) {
+        int low = 0;
+        int high = numActivities - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (slotOffset[middle] <= slot) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Getters.
+     */
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    public int getNumActivities() {
+        return numActivities;
+    }
+
+    public int getNumResources() {
+        return numResources;
+    }
+
+    public int getNumSlots() {
+        return slotResource.length;
+    }
+
+    public int getStart(int a) {
+        return start[a];
+    }
+
+    public int getDuration(int a) {
+        return duration[a];
+    }
+
+    public int getFinish(int a) {
+        return start[a] + duration[a];
+    }
+
+    public int getSlotResource(int slot) {
+        return slotResource[slot];
+    }
+
+    public boolean hasSlots(int a) {
+        return slotOffset[a] != slotOffset[a + 1];
+    }
+}
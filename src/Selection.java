@@ -1,6 +1,6 @@
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 
 /**
@@ -15,23 +15,44 @@ public class Selection {
     public Selection(Integer tournamentSize, Population population) {
         this.tournamentSize = tournamentSize;
         this.population = population;
-        this.comparator = Comparator.comparing(Individual::getDuration);
-        comparator = comparator.thenComparing(Individual::getConflicts);
+        this.comparator = Population.FITNESS_ORDER;
     }
 
-    Individual tournament() {
-        Random generator = new Random();
-        ArrayList<Individual> individuals = population.getIndividuals();
-        ArrayList<Individual> candidates = new ArrayList<>();
-        int currentCandidate = 0;
+    Individual tournament(RandomGenerator generator) {
+        return tournament(population, tournamentSize, comparator, generator);
+    }
 
-        while (currentCandidate < tournamentSize) {
+    /**
+     * Draws tournamentSize individuals and returns the best one, the first drawn of equally good ones.
+     */
+    static Individual tournament(Population population, int tournamentSize, Comparator<Individual> comparator,
+                                 RandomGenerator generator) {
+        ArrayList<Individual> individuals = population.getIndividuals();
+        Individual winner = null;
+        for (int currentCandidate = 0; currentCandidate < tournamentSize; currentCandidate++) {
             Individual individual = individuals.get(generator.nextInt(individuals.size()));
-            candidates.add(individual);
-            currentCandidate++;
+            if (winner == null || comparator.compare(individual, winner) < 0) {
+                winner = individual;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Same tournament over the records of a store, returns the record of the winner.
+     * Candidate and winner are read through the given cursors.
+     */
+    static int tournament(PopulationStore store, int tournamentSize, PopulationStore.Cursor candidate,
+                          PopulationStore.Cursor winner, RandomGenerator generator) {
+        int winnerRecord = -1;
+        for (int currentCandidate = 0; currentCandidate < tournamentSize; currentCandidate++) {
+            int record = generator.nextInt(store.size());
+            if (winnerRecord < 0 || candidate.at(record).compareTo(winner) < 0) {
+                winnerRecord = record;
+                winner.at(record);
+            }
         }
-        candidates.sort(comparator);
-        return candidates.get(0);
+        return winnerRecord;
     }
 }
 
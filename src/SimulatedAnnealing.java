@@ -0,0 +1,296 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+
+/**
+ * Performs simulated annealing with parallel tempering on the MSPSP instance.
+ * Replicas of the schedule run Metropolis steps over shift, swap and reassign moves (see ScheduleState)
+ * at temperatures spread geometrically between minimal and maximal temperature, each replica on its own thread.
+ * After every generation of steps replicas at neighbouring temperatures exchange their states with the
+ * parallel tempering acceptance probability, and the whole ladder is cooled by the cooling schedule.
+ * Every replica has its own random stream, so results do not depend on the number of threads.
+ */
+public class SimulatedAnnealing implements Solver {
+
+    private static final int DEFAULT_REPLICAS = 4;
+    private static final int DEFAULT_STEPS_PER_EXCHANGE = 2000;
+    private static final double DEFAULT_MIN_TEMPERATURE = 0.5;
+    private static final double DEFAULT_MAX_TEMPERATURE = 20;
+    private static final double DEFAULT_COOLING_RATE = 0.99;
+
+    /**
+     * Factor applied to the temperature ladder in given generation.
+     */
+    enum CoolingSchedule {
+        CONSTANT,
+        GEOMETRIC,
+        LINEAR,
+        LUNDY_MEES;
+
+        double factor(int generation, int maxGenerations, double coolingRate) {
+            switch (this) {
+                case GEOMETRIC:
+                    return Math.pow(coolingRate, generation);
+                case LINEAR:
+                    return maxGenerations > 0 ? Math.max(0.01, 1.0 - (double) generation / maxGenerations) : 1.0;
+                case LUNDY_MEES:
+                    return 1.0 / (1.0 + (1.0 - coolingRate) * generation);
+                default:
+                    return 1.0;
+            }
+        }
+    }
+
+    private final String filename;
+    private int replicas;
+    private int threads;
+    private int stepsPerExchange;
+    private double minTemperature;
+    private double maxTemperature;
+    private double coolingRate;
+    private CoolingSchedule coolingSchedule;
+    private RandomStreams randomStreams;
+    private LowerBounds lowerBounds;
+    private volatile Individual bestIndividual;
+    private volatile boolean stopRequested;
+
+    public SimulatedAnnealing(String filename) {
+        this.filename = filename;
+        this.replicas = DEFAULT_REPLICAS;
+        this.threads = Math.min(DEFAULT_REPLICAS, Runtime.getRuntime().availableProcessors());
+        this.stepsPerExchange = DEFAULT_STEPS_PER_EXCHANGE;
+        this.minTemperature = DEFAULT_MIN_TEMPERATURE;
+        this.maxTemperature = DEFAULT_MAX_TEMPERATURE;
+        this.coolingRate = DEFAULT_COOLING_RATE;
+        this.coolingSchedule = CoolingSchedule.GEOMETRIC;
+        this.randomStreams = new RandomStreams(System.nanoTime());
+    }
+
+    @Override
+    public Individual run(TerminationCriteria termination, Consumer<Population> listener) {
+        stopRequested = false;
+        termination.start();
+        InstanceLoader instanceLoader = new InstanceLoader(filename);
+        instanceLoader.loadInstance();
+        lowerBounds = instanceLoader.getLowerBounds();
+        termination.tightenLowerBound(lowerBounds.getLowerBound());
+
+        ScheduleState[] states = new ScheduleState[replicas];
+        ScheduleState[] bests = new ScheduleState[replicas];
+        RandomAlgorithm randomAlgorithm = new RandomAlgorithm();
+        Schedule template = new Schedule(instanceLoader);
+        for (int i = 0; i < replicas; i++) {
+            Schedule schedule = template.copy(template.getActivities());
+            randomAlgorithm.schedule(schedule, randomStreams.stream(RandomStreams.Purpose.INITIALIZATION, 0, i));
+            states[i] = new ScheduleState(schedule);
+            bests[i] = new ScheduleState(states[i]);
+        }
+        double[] ladder = new double[replicas];
+        for (int i = 0; i < replicas; i++) {
+            double position = replicas == 1 ? 0 : (double) i / (replicas - 1);
+            ladder[i] = minTemperature * Math.pow(maxTemperature / minTemperature, position);
+        }
+        report(states, bests, replicas, termination, listener);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "annealing-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (!stopRequested && !termination.shouldTerminate()) {
+                termination.nextGeneration();
+                int generation = termination.getGeneration();
+                double factor = coolingSchedule.factor(generation, termination.getMaxGenerations(), coolingRate);
+
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int i = 0; i < replicas; i++) {
+                    ScheduleState state = states[i];
+                    ScheduleState best = bests[i];
+                    double temperature = ladder[i] * factor;
+                    SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.SEARCH, generation, i);
+                    tasks.add(() -> {
+                        anneal(state, best, temperature, random);
+                        return null;
+                    });
+                }
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+                exchange(states, bests, ladder, factor,
+                        randomStreams.stream(RandomStreams.Purpose.OPERATORS, generation, 0), generation);
+                report(states, bests, replicas * stepsPerExchange, termination, listener);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return bestIndividual;
+    }
+
+    /**
+     * Metropolis steps of one replica at given temperature.
+     */
+    private void anneal(ScheduleState state, ScheduleState best, double temperature, SplittableRandom random) {
+        for (int step = 0; step < stepsPerExchange; step++) {
+            long cost = state.getCost();
+            int type = random.nextInt(3);
+            if (type == 0) {
+                int a = random.nextInt(state.getNumActivities());
+                int newStart = LocalSearch.randomShift(state, a, random);
+                if (newStart >= 0 && accept(state.costOfShift(a, newStart) - cost, temperature, random)) {
+                    state.shift(a, newStart);
+                }
+            } else if (type == 1) {
+                int a = random.nextInt(state.getNumActivities());
+                int b = random.nextInt(state.getNumActivities());
+                if (a != b && accept(state.costOfSwap(a, b) - cost, temperature, random)) {
+                    state.swap(a, b);
+                }
+            } else if (state.getNumSlots() > 0) {
+                int slot = random.nextInt(state.getNumSlots());
+                int resource = random.nextInt(state.getNumResources());
+                if (state.canReassign(slot, resource)
+                        && accept(state.costOfReassign(slot, resource) - cost, temperature, random)) {
+                    state.reassign(slot, resource);
+                }
+            }
+            if (state.getCost() < best.getCost()) {
+                best.copyFrom(state);
+            }
+        }
+    }
+
+    private boolean accept(long delta, double temperature, SplittableRandom random) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    /**
+     * Exchanges states of replicas at neighbouring temperatures, even or odd pairs in turns.
+     */
+    private void exchange(ScheduleState[] states, ScheduleState[] bests, double[] ladder, double factor,
+                          SplittableRandom random, int generation) {
+        for (int i = generation % 2; i + 1 < replicas; i += 2) {
+            double beta1 = 1.0 / (ladder[i] * factor);
+            double beta2 = 1.0 / (ladder[i + 1] * factor);
+            double exponent = (beta1 - beta2) * (states[i].getCost() - states[i + 1].getCost());
+            if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+                ScheduleState state = states[i];
+                states[i] = states[i + 1];
+                states[i + 1] = state;
+                ScheduleState best = bests[i];
+                bests[i] = bests[i + 1];
+                bests[i + 1] = best;
+            }
+        }
+    }
+
+    private void report(ScheduleState[] states, ScheduleState[] bests, int evaluations,
+                        TerminationCriteria termination, Consumer<Population> listener) {
+        ScheduleState best = bests[0];
+        for (ScheduleState state : bests) {
+            if (state.getCost() < best.getCost()) {
+                best = state;
+            }
+        }
+        ArrayList<Individual> individuals = new ArrayList<>();
+        individuals.add(best.toIndividual());
+        for (ScheduleState state : states) {
+            individuals.add(state.toIndividual());
+        }
+        Population population = new Population(individuals, termination.getGeneration());
+        population.evaluateDuration();
+        population.evaluateConstraints();
+        population.setLowerBounds(lowerBounds);
+        bestIndividual = individuals.get(0);
+        termination.update(evaluations, bestIndividual);
+        listener.accept(population);
+    }
+
+    @Override
+    public Individual getBestIndividual() {
+        return bestIndividual;
+    }
+
+    @Override
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Getters and setters.
+     */
+    public long getSeed() {
+        return randomStreams.getSeed();
+    }
+
+    public void setSeed(long seed) {
+        this.randomStreams = new RandomStreams(seed);
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(int replicas) {
+        this.replicas = replicas;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getStepsPerExchange() {
+        return stepsPerExchange;
+    }
+
+    public void setStepsPerExchange(int stepsPerExchange) {
+        this.stepsPerExchange = stepsPerExchange;
+    }
+
+    public double getMinTemperature() {
+        return minTemperature;
+    }
+
+    public void setMinTemperature(double minTemperature) {
+        this.minTemperature = minTemperature;
+    }
+
+    public double getMaxTemperature() {
+        return maxTemperature;
+    }
+
+    public void setMaxTemperature(double maxTemperature) {
+        this.maxTemperature = maxTemperature;
+    }
+
+    public double getCoolingRate() {
+        return coolingRate;
+    }
+
+    public void setCoolingRate(double coolingRate) {
+        this.coolingRate = coolingRate;
+    }
+
+    public CoolingSchedule getCoolingSchedule() {
+        return coolingSchedule;
+    }
+
+    public void setCoolingSchedule(CoolingSchedule coolingSchedule) {
+        this.coolingSchedule = coolingSchedule;
+    }
+}
@@ -1,15 +1,24 @@
 /**
  * Skill links resource and activity by resourceId field of a Skill and RequiredSkill.
  * If resource is not still assigned, resourceId is -1.
+ * <p>
+ * Skill of an activity is a view over its slot in the schedule which owns it. Skill mastered by a resource
+ * has no slot and is never assigned.
  */
 public class Skill {
 
-    private int type;
-    private int resourceId;
+    private final Schedule schedule;
+    private final int slot;
+    private final int type;
 
-    public Skill(int type) {
+    Skill(Schedule schedule, int slot, int type) {
+        this.schedule = schedule;
+        this.slot = slot;
         this.type = type;
-        this.resourceId = -1;
+    }
+
+    public Skill(int type) {
+        this(null, -1, type);
     }
 
     public String toString() {
@@ -32,15 +41,18 @@ public class Skill {
         return type;
     }
 
-    public void setType(int type) {
-        this.type = type;
+    int getSlot() {
+        return slot;
     }
 
     public int getResourceId() {
-        return resourceId;
+        return schedule == null ? -1 : schedule.getSlotResources()[slot];
     }
 
     public void setResourceId(int resourceId) {
-        this.resourceId = resourceId;
+        if (schedule == null) {
+            throw new IllegalStateException("Skill mastered by a resource cannot be assigned");
+        }
+        schedule.getSlotResources()[slot] = resourceId;
     }
 }
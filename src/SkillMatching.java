@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+
+/**
+ * Hopcroft-Karp maximum bipartite matching between skill units required by an activity (left side)
+ * and resources (right side). Adjacency is given in compressed rows: neighbours of slot s are
+ * adjacency[offset[s]] .. adjacency[offset[s + 1] - 1]. Work arrays are reused between calls.
+ */
+public class SkillMatching {
+
+    private static final int FREE = -1;
+    private static final int INFINITE = Integer.MAX_VALUE;
+
+    private int[] slotMatch = new int[0];
+    private int[] resourceMatch = new int[0];
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+    private int[] offset;
+    private int[] adjacency;
+
+    /**
+     * Finds maximum matching, returns its size. Resource matched to slot s is getSlotMatch()[s] or -1.
+     */
+    int match(int numSlots, int numResources, int[] offset, int[] adjacency) {
+        this.offset = offset;
+        this.adjacency = adjacency;
+        if (slotMatch.length < numSlots) {
+            slotMatch = new int[numSlots];
+            distance = new int[numSlots];
+            queue = new int[numSlots];
+        }
+        if (resourceMatch.length < numResources) {
+            resourceMatch = new int[numResources];
+        }
+        Arrays.fill(slotMatch, 0, numSlots, FREE);
+        Arrays.fill(resourceMatch, 0, numResources, FREE);
+
+        int matched = 0;
+        while (layer(numSlots)) {
+            for (int s = 0; s < numSlots; s++) {
+                if (slotMatch[s] == FREE && augment(s)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Breadth first search from free slots over alternating paths, returns true if a free resource is reachable.
+     */
+    private boolean layer(int numSlots) {
+        int head = 0;
+        int tail = 0;
+        for (int s = 0; s < numSlots; s++) {
+            if (slotMatch[s] == FREE) {
+                distance[s] = 0;
+                queue[tail++] = s;
+            } else {
+                distance[s] = INFINITE;
+            }
+        }
+        boolean found = false;
+        while (head < tail) {
+            int s = queue[head++];
+            for (int i = offset[s]; i < offset[s + 1]; i++) {
+                int next = resourceMatch[adjacency[i]];
+                if (next == FREE) {
+                    found = true;
+                } else if (distance[next] == INFINITE) {
+                    distance[next] = distance[s] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Depth first search along the layers for an augmenting path from slot s.
+     */
+    private boolean augment(int s) {
+        for (int i = offset[s]; i < offset[s + 1]; i++) {
+            int resource = adjacency[i];
+            int next = resourceMatch[resource];
+            if (next == FREE || distance[next] == distance[s] + 1 && augment(next)) {
+                slotMatch[s] = resource;
+                resourceMatch[resource] = s;
+                return true;
+            }
+        }
+        distance[s] = INFINITE;
+        return false;
+    }
+
+    int[] getSlotMatch() {
+        return slotMatch;
+    }
+}
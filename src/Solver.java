@@ -0,0 +1,24 @@
+import java.util.function.Consumer;
+
+
+/**
+ * Common interface of the solvers for MSPSP instance.
+ */
+public interface Solver {
+
+    /**
+     * Solves until any of the termination criteria is met and passes the progress of every
+     * generation (or its equivalent) to the listener. Returns the best individual found.
+     */
+    Individual run(TerminationCriteria termination, Consumer<Population> listener);
+
+    /**
+     * Returns the best individual found so far, it can be called from another thread during the run.
+     */
+    Individual getBestIndividual();
+
+    /**
+     * Asks a running solve to stop as soon as possible.
+     */
+    void stop();
+}
@@ -0,0 +1,544 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+
+/**
+ * Solves instances in a long running JVM, so jobs share the JIT-compiled code and parsed instances.
+ * Listens on localhost only:
+ * <pre>
+ *     POST   /jobs?instance=path&amp;solver=ga&amp;seed=42&amp;generations=500&amp;budgetMillis=10000
+ *            or the .dzn instance inline as the request body; answers 202 with the job id,
+ *            503 if all workers are busy and the queue is full
+ *     GET    /jobs/id   streams the progress of the job until it ends, see Job;
+ *                       503 if MAX_STREAMS streams are open
+ *     DELETE /jobs/id   cancels the job, or forgets it if it has ended
+ * </pre>
+ * Jobs run on a fixed pool of workers with a bounded queue. Solvers are ga, tabu, sa and bb, the exact
+ * branch and bound for instances of at most BranchAndBound.MAX_ACTIVITIES activities.
+ * Progress streams are written on threads of their own, so clients watching jobs never hold up
+ * submitting and cancelling.
+ * Instances given by path are parsed once and kept for genetic algorithm jobs while the file is unchanged.
+ * <p>
+ * Usage: SolverServer [--port 8080] [--workers n] [--queue n]
+ */
+public class SolverServer {
+
+    private static final Logger LOGGER = Logger.getLogger(SolverServer.class.getName());
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_QUEUE = 16;
+    private static final int HANDLER_THREADS = 16;
+    private static final int CACHED_INSTANCES = 16;
+    private static final int KEPT_ENDED_JOBS = 256;
+    private static final int MAX_STREAMS = 256;
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService handlers;
+    private final ExecutorService streams;
+    private final Semaphore streamPermits = new Semaphore(MAX_STREAMS);
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final LinkedHashMap<Long, Job> jobs = new LinkedHashMap<>();
+    private final LinkedHashMap<String, InstanceLoader> instances = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, InstanceLoader> eldest) {
+            return size() > CACHED_INSTANCES;
+        }
+    };
+
+    /**
+     * Server on given localhost port (0 for any free port) with given number of workers and queued jobs.
+     */
+    public SolverServer(int port, int workers, int queue) throws IOException {
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                queue > 0 ? new ArrayBlockingQueue<>(queue) : new SynchronousQueue<>(),
+                runnable -> new Thread(runnable, "solver-worker"));
+        this.handlers = Executors.newFixedThreadPool(HANDLER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "solver-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.streams = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "solver-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(handlers);
+        server.createContext("/jobs", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int queue = DEFAULT_QUEUE;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--workers":
+                    workers = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--queue":
+                    queue = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        SolverServer server = new SolverServer(port, workers, queue);
+        server.start();
+        System.out.println("Listening on http://localhost:" + server.getPort() + "/jobs");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and stops all jobs.
+     */
+    public void stop() {
+        server.stop(0);
+        synchronized (jobs) {
+            for (Job job : jobs.values()) {
+                job.cancel();
+            }
+        }
+        workers.shutdownNow();
+        handlers.shutdownNow();
+        streams.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        boolean streaming = false;
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if (path.equals("/jobs") || path.equals("/jobs/")) {
+                if (method.equals("POST")) {
+                    submit(exchange);
+                } else {
+                    respond(exchange, 405, "Use POST to submit a job\n");
+                }
+                return;
+            }
+            Job job = findJob(path.substring("/jobs/".length()));
+            if (job == null) {
+                respond(exchange, 404, "No such job\n");
+            } else if (method.equals("GET")) {
+                streaming = startStream(exchange, job);
+                if (!streaming) {
+                    respond(exchange, 503, "Too many progress streams, try again later\n");
+                }
+            } else if (method.equals("DELETE")) {
+                if (job.cancel()) {
+                    respond(exchange, 200, "cancelled\n");
+                } else {
+                    synchronized (jobs) {
+                        jobs.remove(job.id);
+                    }
+                    respond(exchange, 200, "removed\n");
+                }
+            } else {
+                respond(exchange, 405, "Use GET or DELETE on a job\n");
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+        } finally {
+            if (!streaming) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Streams the progress of the job on a stream thread, which closes the exchange.
+     * Returns false if MAX_STREAMS streams are open.
+     */
+    private boolean startStream(HttpExchange exchange, Job job) {
+        if (!streamPermits.tryAcquire()) {
+            return false;
+        }
+        try {
+            streams.execute(() -> {
+                try {
+                    stream(exchange, job);
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Progress stream of job " + job.id + " closed: " + e);
+                } finally {
+                    exchange.close();
+                    streamPermits.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            streamPermits.release();
+            return false;
+        }
+    }
+
+    private void submit(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        Path inline = null;
+        String instance = parameters.get("instance");
+        if (instance == null) {
+            if (body.length == 0) {
+                throw new IllegalArgumentException("Give the instance as parameter or the .dzn as request body");
+            }
+            inline = Files.createTempFile("mspsp-job", ".dzn");
+            Files.write(inline, body);
+            instance = inline.toString();
+        } else if (!Files.isReadable(Paths.get(instance))) {
+            throw new IllegalArgumentException("Cannot read instance " + instance);
+        }
+
+        Job job;
+        try {
+            job = new Job(nextId.getAndIncrement(), createSolver(parameters, instance, inline == null),
+                    createTermination(parameters), inline);
+        } catch (RuntimeException e) {
+            deleteInline(inline);
+            throw e;
+        }
+        synchronized (jobs) {
+            try {
+                job.future = workers.submit(job::run);
+            } catch (RejectedExecutionException e) {
+                deleteInline(inline);
+                respond(exchange, 503, "All workers are busy, try again later\n");
+                return;
+            }
+            jobs.put(job.id, job);
+            forgetEndedJobs();
+        }
+        respond(exchange, 202, job.id + "\n");
+    }
+
+    private Solver createSolver(Map<String, String> parameters, String instance, boolean cached) {
+        String name = parameters.getOrDefault("solver", "ga");
+        Solver solver;
+        switch (name) {
+            case "ga":
+                GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(instance);
+                geneticAlgorithm.enableAdaptiveOperators();
+                if (cached) {
+                    geneticAlgorithm.useInstance(loadInstance(instance));
+                }
+                if (parameters.containsKey("seed")) {
+                    geneticAlgorithm.setSeed(Long.parseLong(parameters.get("seed")));
+                }
+                solver = geneticAlgorithm;
+                break;
+            case "tabu":
+                TabuSearch tabuSearch = new TabuSearch(instance);
+                if (parameters.containsKey("seed")) {
+                    tabuSearch.setSeed(Long.parseLong(parameters.get("seed")));
+                }
+                solver = tabuSearch;
+                break;
+            case "sa":
+                SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(instance);
+                simulatedAnnealing.setThreads(1);
+                if (parameters.containsKey("seed")) {
+                    simulatedAnnealing.setSeed(Long.parseLong(parameters.get("seed")));
+                }
+                solver = simulatedAnnealing;
+                break;
+            case "bb":
+                InstanceLoader loader = cached ? loadInstance(instance) : new InstanceLoader(instance);
+                if (!cached) {
+                    loader.loadInstance();
+                }
+                if (loader.getModel() == null) {
+                    throw new IllegalArgumentException("Cannot parse instance " + instance);
+                }
+                if (loader.getNumActivities() > BranchAndBound.MAX_ACTIVITIES) {
+                    throw new IllegalArgumentException("Branch and bound takes at most "
+                            + BranchAndBound.MAX_ACTIVITIES + " activities, the instance has " + loader.getNumActivities());
+                }
+                BranchAndBound branchAndBound = new BranchAndBound(instance);
+                branchAndBound.setThreads(1);
+                if (parameters.containsKey("seed")) {
+                    branchAndBound.setSeed(Long.parseLong(parameters.get("seed")));
+                }
+                solver = branchAndBound;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown solver " + name);
+        }
+        return solver;
+    }
+
+    private TerminationCriteria createTermination(Map<String, String> parameters) {
+        TerminationCriteria termination = new TerminationCriteria(
+                Integer.parseInt(parameters.getOrDefault("generations", "500")));
+        if (parameters.containsKey("budgetMillis")) {
+            termination.setTimeBudgetMillis(Long.parseLong(parameters.get("budgetMillis")));
+        }
+        if (parameters.containsKey("stagnation")) {
+            termination.setStagnationGenerations(Integer.parseInt(parameters.get("stagnation")));
+        }
+        return termination;
+    }
+
+    /**
+     * Instance parsed before if the file has not changed since, with its lower bounds and template
+     * computed, so that jobs can share it.
+     */
+    private InstanceLoader loadInstance(String instance) {
+        String key;
+        try {
+            key = instance + "@" + Files.getLastModifiedTime(Paths.get(instance)).toMillis();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read instance " + instance);
+        }
+        synchronized (instances) {
+            InstanceLoader loader = instances.get(key);
+            if (loader == null) {
+                loader = new InstanceLoader(instance);
+                loader.loadInstance();
+                if (loader.getModel() == null) {
+                    throw new IllegalArgumentException("Cannot parse instance " + instance);
+                }
+                loader.getLowerBounds();
+                loader.getActivities();
+                instances.put(key, loader);
+            }
+            return loader;
+        }
+    }
+
+    private Job findJob(String id) {
+        try {
+            synchronized (jobs) {
+                return jobs.get(Long.parseLong(id));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Forgets the oldest ended jobs beyond KEPT_ENDED_JOBS. Called holding the lock of jobs.
+     */
+    private void forgetEndedJobs() {
+        int ended = 0;
+        for (Job job : jobs.values()) {
+            if (job.hasEnded()) {
+                ended++;
+            }
+        }
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (ended > KEPT_ENDED_JOBS && iterator.hasNext()) {
+            if (iterator.next().hasEnded()) {
+                iterator.remove();
+                ended--;
+            }
+        }
+    }
+
+    /**
+     * Writes the lines of the job as they come, until it ends.
+     */
+    private void stream(HttpExchange exchange, Job job) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        int next = 0;
+        try {
+            while (true) {
+                List<String> lines = job.awaitLines(next);
+                if (lines.isEmpty()) {
+                    break;
+                }
+                for (String line : lines) {
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                }
+                out.flush();
+                next += lines.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void deleteInline(Path inline) {
+        if (inline == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(inline);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, e.toString());
+        }
+    }
+
+    /**
+     * A solve and its progress as lines of text:
+     * <pre>
+     *     queued
+     *     running
+     *     best;generation;duration;conflicts      whenever the best individual improves
+     *     done;duration;conflicts                 or cancelled;... or failed;message
+     * </pre>
+     */
+    private static final class Job {
+        private final long id;
+        private final Solver solver;
+        private final TerminationCriteria termination;
+        private final Path inline;
+        private final List<String> lines = new ArrayList<>();
+        private Future<?> future;
+        private volatile boolean cancelled;
+        private boolean ended;
+        private Individual reported;
+
+        Job(long id, Solver solver, TerminationCriteria termination, Path inline) {
+            this.id = id;
+            this.solver = solver;
+            this.termination = termination;
+            this.inline = inline;
+            lines.add("queued\n");
+        }
+
+        void run() {
+            if (cancelled) {
+                end("cancelled;;\n");
+                return;
+            }
+            add("running\n");
+            try {
+                Individual best = solver.run(termination, population -> report());
+                String result = best == null ? ";" : (int) best.getDuration() + ";" + best.getConflicts();
+                end((cancelled ? "cancelled;" : "done;") + result + "\n");
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Job " + id + " failed: " + e);
+                end("failed;" + e + "\n");
+            } catch (Error e) {
+                LOGGER.log(Level.SEVERE, "Job " + id + " failed: " + e);
+                end("failed;" + e + "\n");
+                throw e;
+            } finally {
+                deleteInline(inline);
+            }
+        }
+
+        /**
+         * Called every generation, also repeats a stop which came before the solver started.
+         */
+        private void report() {
+            if (cancelled) {
+                solver.stop();
+            }
+            Individual best = solver.getBestIndividual();
+            if (best != null && (reported == null || Population.FITNESS_ORDER.compare(best, reported) < 0)) {
+                reported = best;
+                add("best;" + termination.getGeneration() + ";" + (int) best.getDuration() + ";"
+                        + best.getConflicts() + "\n");
+            }
+        }
+
+        /**
+         * Stops the job if it has not ended, returns false if it has.
+         */
+        boolean cancel() {
+            synchronized (this) {
+                if (ended) {
+                    return false;
+                }
+            }
+            cancelled = true;
+            solver.stop();
+            if (future != null && future.cancel(false)) {
+                deleteInline(inline);
+                end("cancelled;;\n");
+            }
+            return true;
+        }
+
+        synchronized boolean hasEnded() {
+            return ended;
+        }
+
+        private synchronized void add(String line) {
+            lines.add(line);
+            notifyAll();
+        }
+
+        private synchronized void end(String line) {
+            if (!ended) {
+                ended = true;
+                add(line);
+            }
+        }
+
+        /**
+         * Lines from given index on, waiting until there are some; empty once the job has ended and all were read.
+         */
+        synchronized List<String> awaitLines(int from) throws InterruptedException {
+            while (lines.size() <= from && !ended) {
+                wait();
+            }
+            return new ArrayList<>(lines.subList(from, lines.size()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+
+/**
+ * Fixed tenure tabu list of move attributes encoded as longs.
+ * Attributes are kept in a ring buffer in order of insertion, the oldest one leaving when a new one comes.
+ * An open addressing hash table with counts mirrors the ring, so checking an attribute is constant time.
+ */
+public class TabuList {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] ring;
+    private final long[] keys;
+    private final int[] counts;
+    private final int mask;
+    private int head;
+    private int size;
+
+    public TabuList(int tenure) {
+        this.ring = new long[Math.max(1, tenure)];
+        int capacity = Integer.highestOneBit(Math.max(4, ring.length * 4 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void add(long attribute) {
+        if (size == ring.length) {
+            remove(ring[head]);
+        } else {
+            size++;
+        }
+        ring[head] = attribute;
+        head = (head + 1) % ring.length;
+        int slot = find(attribute);
+        keys[slot] = attribute;
+        counts[slot]++;
+    }
+
+    boolean contains(long attribute) {
+        return keys[find(attribute)] == attribute;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Slot holding the attribute or the empty slot where it would be put.
+     */
+    private int find(long attribute) {
+        int slot = hash(attribute);
+        while (keys[slot] != EMPTY && keys[slot] != attribute) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void remove(long attribute) {
+        int slot = find(attribute);
+        if (--counts[slot] > 0) {
+            return;
+        }
+        keys[slot] = EMPTY;
+        // shift back the entries of the probe sequence following the freed slot
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                counts[slot] = counts[next];
+                keys[next] = EMPTY;
+                counts[next] = 0;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private int hash(long attribute) {
+        long h = attribute * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
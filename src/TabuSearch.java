@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+
+/**
+ * Performs tabu search on the MSPSP instance, a trajectory based alternative to GeneticAlgorithm.
+ * Starts from a schedule created by RandomAlgorithm and in every iteration moves to the best of a sample
+ * of candidate moves from the shift, swap and reassign neighbourhoods (see ScheduleState), even if it is worse.
+ * Moves bringing an activity back to a start time or a skill unit back to a resource it recently left are tabu,
+ * unless they lead to a new best schedule (aspiration).
+ * A block of iterations is reported to the listener as one generation, with the best and current schedule.
+ */
+public class TabuSearch implements Solver {
+
+    private static final int DEFAULT_TENURE = 12;
+    private static final int DEFAULT_CANDIDATES = 40;
+    private static final int DEFAULT_ITERATIONS_PER_GENERATION = 100;
+
+    private static final int START_ATTRIBUTE = 1;
+    private static final int ASSIGN_ATTRIBUTE = 2;
+
+    private static final int SHIFT = 0;
+    private static final int SWAP = 1;
+    private static final int REASSIGN = 2;
+
+    private final String filename;
+    private int tenure;
+    private int candidates;
+    private int iterationsPerGeneration;
+    private RandomStreams randomStreams;
+    private LowerBounds lowerBounds;
+    private volatile Individual bestIndividual;
+    private volatile boolean stopRequested;
+
+    public TabuSearch(String filename) {
+        this.filename = filename;
+        this.tenure = DEFAULT_TENURE;
+        this.candidates = DEFAULT_CANDIDATES;
+        this.iterationsPerGeneration = DEFAULT_ITERATIONS_PER_GENERATION;
+        this.randomStreams = new RandomStreams(System.nanoTime());
+    }
+
+    @Override
+    public Individual run(TerminationCriteria termination, Consumer<Population> listener) {
+        stopRequested = false;
+        termination.start();
+        InstanceLoader instanceLoader = new InstanceLoader(filename);
+        instanceLoader.loadInstance();
+        lowerBounds = instanceLoader.getLowerBounds();
+        termination.tightenLowerBound(lowerBounds.getLowerBound());
+        Schedule schedule = new Schedule(instanceLoader);
+        new RandomAlgorithm().schedule(schedule, randomStreams.stream(RandomStreams.Purpose.INITIALIZATION, 0, 0));
+
+        ScheduleState current = new ScheduleState(schedule);
+        ScheduleState best = new ScheduleState(current);
+        TabuList tabuList = new TabuList(tenure);
+        report(current, best, 1, termination, listener);
+
+        while (!stopRequested && !termination.shouldTerminate()) {
+            termination.nextGeneration();
+            SplittableRandom random = randomStreams.stream(RandomStreams.Purpose.SEARCH, termination.getGeneration(), 0);
+            int evaluations = 0;
+            for (int i = 0; i < iterationsPerGeneration; i++) {
+                evaluations += step(current, best, tabuList, random);
+                if (current.getCost() < best.getCost()) {
+                    best.copyFrom(current);
+                }
+            }
+            report(current, best, evaluations, termination, listener);
+        }
+        return bestIndividual;
+    }
+
+    /**
+     * Samples candidate moves and applies the best admissible one, returns the number of moves evaluated.
+     */
+    private int step(ScheduleState current, ScheduleState best, TabuList tabuList, SplittableRandom random) {
+        long bestCost = best.getCost();
+        long chosenCost = Long.MAX_VALUE;
+        int chosenType = -1;
+        int chosenX = 0;
+        int chosenY = 0;
+        int evaluated = 0;
+
+        for (int i = 0; i < candidates; i++) {
+            int type = random.nextInt(3);
+            int x;
+            int y;
+            long cost;
+            boolean tabu;
+            if (type == SHIFT) {
+                x = random.nextInt(current.getNumActivities());
+                y = LocalSearch.randomShift(current, x, random);
+                if (y < 0) {
+                    continue;
+                }
+                cost = current.costOfShift(x, y);
+                tabu = tabuList.contains(attribute(START_ATTRIBUTE, x, y));
+            } else if (type == SWAP) {
+                x = random.nextInt(current.getNumActivities());
+                y = random.nextInt(current.getNumActivities());
+                if (x == y || current.getStart(x) == current.getStart(y)) {
+                    continue;
+                }
+                cost = current.costOfSwap(x, y);
+                tabu = tabuList.contains(attribute(START_ATTRIBUTE, x, current.getStart(y)))
+                        || tabuList.contains(attribute(START_ATTRIBUTE, y, current.getStart(x)));
+            } else {
+                if (current.getNumSlots() == 0) {
+                    continue;
+                }
+                x = random.nextInt(current.getNumSlots());
+                y = random.nextInt(current.getNumResources());
+                if (!current.canReassign(x, y)) {
+                    continue;
+                }
+                cost = current.costOfReassign(x, y);
+                tabu = tabuList.contains(attribute(ASSIGN_ATTRIBUTE, x, y));
+            }
+            evaluated++;
+            if ((!tabu || cost < bestCost) && cost < chosenCost) {
+                chosenCost = cost;
+                chosenType = type;
+                chosenX = x;
+                chosenY = y;
+            }
+        }
+
+        if (chosenType == SHIFT) {
+            tabuList.add(attribute(START_ATTRIBUTE, chosenX, current.getStart(chosenX)));
+            current.shift(chosenX, chosenY);
+        } else if (chosenType == SWAP) {
+            tabuList.add(attribute(START_ATTRIBUTE, chosenX, current.getStart(chosenX)));
+            tabuList.add(attribute(START_ATTRIBUTE, chosenY, current.getStart(chosenY)));
+            current.swap(chosenX, chosenY);
+        } else if (chosenType == REASSIGN) {
+            tabuList.add(attribute(ASSIGN_ATTRIBUTE, chosenX, current.getSlotResource(chosenX)));
+            current.reassign(chosenX, chosenY);
+        }
+        return evaluated;
+    }
+
+    private void report(ScheduleState current, ScheduleState best, int evaluations, TerminationCriteria termination,
+                        Consumer<Population> listener) {
+        ArrayList<Individual> individuals = new ArrayList<>();
+        individuals.add(best.toIndividual());
+        individuals.add(current.toIndividual());
+        Population population = new Population(individuals, termination.getGeneration());
+        population.evaluateDuration();
+        population.evaluateConstraints();
+        population.setLowerBounds(lowerBounds);
+        bestIndividual = individuals.get(0);
+        termination.update(evaluations, bestIndividual);
+        listener.accept(population);
+    }
+
+    private static long attribute(int type, int x, int y) {
+        return ((long) type << 60) | ((long) x << 30) | (y & 0x3fffffffL);
+    }
+
+    @Override
+    public Individual getBestIndividual() {
+        return bestIndividual;
+    }
+
+    @Override
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Getters and setters.
+     */
+    public long getSeed() {
+        return randomStreams.getSeed();
+    }
+
+    public void setSeed(long seed) {
+        this.randomStreams = new RandomStreams(seed);
+    }
+
+    public int getTenure() {
+        return tenure;
+    }
+
+    public void setTenure(int tenure) {
+        this.tenure = tenure;
+    }
+
+    public int getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(int candidates) {
+        this.candidates = candidates;
+    }
+
+    public int getIterationsPerGeneration() {
+        return iterationsPerGeneration;
+    }
+
+    public void setIterationsPerGeneration(int iterationsPerGeneration) {
+        this.iterationsPerGeneration = iterationsPerGeneration;
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Combinable stopping rules for a solver run. A criterion set to -1 is disabled,
+ * the run stops as soon as any enabled criterion is met.
+ */
+public class TerminationCriteria {
+
+    private int maxGenerations = -1;
+    private long timeBudgetMillis = -1;
+    private long maxEvaluations = -1;
+    private int stagnationGenerations = -1;
+    private int lowerBound = -1;
+
+    private long startTime;
+    private int generation;
+    private long evaluations;
+    private double bestDuration = -1;
+    private int bestConflicts;
+    private int generationsWithoutImprovement;
+
+    public TerminationCriteria() {
+    }
+
+    public TerminationCriteria(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    /**
+     * Marks the beginning of the run, the wall-clock budget is measured from here.
+     */
+    void start() {
+        startTime = System.nanoTime();
+        generation = 0;
+        evaluations = 0;
+        bestDuration = -1;
+        generationsWithoutImprovement = 0;
+    }
+
+    /**
+     * Records progress after a generation: number of evaluations done in it and the best individual so far.
+     */
+    void update(int evaluationsDone, Individual bestSoFar) {
+        evaluations += evaluationsDone;
+        if (bestDuration < 0 || bestSoFar.getDuration() < bestDuration) {
+            generationsWithoutImprovement = 0;
+        } else {
+            generationsWithoutImprovement++;
+        }
+        bestDuration = bestSoFar.getDuration();
+        bestConflicts = bestSoFar.getConflicts();
+    }
+
+    /**
+     * Restores progress of an interrupted run, see Checkpoint.
+     */
+    void restore(int generation, long evaluations, double bestDuration, int bestConflicts,
+                 int generationsWithoutImprovement) {
+        this.generation = generation;
+        this.evaluations = evaluations;
+        this.bestDuration = bestDuration;
+        this.bestConflicts = bestConflicts;
+        this.generationsWithoutImprovement = generationsWithoutImprovement;
+    }
+
+    void nextGeneration() {
+        generation++;
+    }
+
+    boolean shouldTerminate() {
+        if (maxGenerations >= 0 && generation >= maxGenerations) {
+            return true;
+        }
+        if (timeBudgetMillis >= 0 && getElapsedMillis() >= timeBudgetMillis) {
+            return true;
+        }
+        if (maxEvaluations >= 0 && evaluations >= maxEvaluations) {
+            return true;
+        }
+        if (stagnationGenerations >= 0 && generationsWithoutImprovement >= stagnationGenerations) {
+            return true;
+        }
+        return lowerBound >= 0 && bestDuration >= 0 && bestConflicts == 0 && bestDuration <= lowerBound;
+    }
+
+    /**
+     * System.nanoTime() at which the time budget runs out, Long.MAX_VALUE without a budget.
+     * GeneticAlgorithm checks it while breeding and in local search and drops a generation which runs out of time,
+     * so a run ends within the breeding of a child or a local search step after the deadline, plus the evaluation
+     * of a population bred in time.
+     */
+    long getDeadline() {
+        return timeBudgetMillis < 0 ? Long.MAX_VALUE : startTime + timeBudgetMillis * 1_000_000;
+    }
+
+    /**
+     * Takes back nextGeneration for a generation which was not completed.
+     */
+    void dropGeneration() {
+        generation--;
+    }
+
+    long getElapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000;
+    }
+
+    /**
+     * Getters and setters.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getBestDuration() {
+        return bestDuration;
+    }
+
+    public int getBestConflicts() {
+        return bestConflicts;
+    }
+
+    public int getGenerationsWithoutImprovement() {
+        return generationsWithoutImprovement;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(long maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    public int getStagnationGenerations() {
+        return stagnationGenerations;
+    }
+
+    public void setStagnationGenerations(int stagnationGenerations) {
+        this.stagnationGenerations = stagnationGenerations;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public void setLowerBound(int lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Raises the lower bound to given value if it is higher, so a run stops once it is provably optimal.
+     */
+    void tightenLowerBound(int lowerBound) {
+        this.lowerBound = Math.max(this.lowerBound, lowerBound);
+    }
+}
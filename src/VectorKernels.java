@@ -0,0 +1,52 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * SIMD versions of the Kernels loops on the preferred vector width of the CPU, with scalar loops for the tail.
+ * Loaded only when the jdk.incubator.vector module is present, see Kernels.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static int max(int[] values, int from, int to) {
+        int i = from;
+        int max = Integer.MIN_VALUE;
+        if (to - from >= SPECIES.length()) {
+            IntVector maxVector = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+            for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+                maxVector = maxVector.max(IntVector.fromArray(SPECIES, values, i));
+            }
+            max = maxVector.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static int indexesWithin(int[] values, int low, int high, int[] indexes) {
+        int count = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(values.length); i < bound; i += SPECIES.length()) {
+            IntVector vector = IntVector.fromArray(SPECIES, values, i);
+            VectorMask<Integer> within = vector.compare(VectorOperators.GE, low)
+                    .and(vector.compare(VectorOperators.LT, high));
+            for (long lanes = within.toLong(); lanes != 0; lanes &= lanes - 1) {
+                indexes[count++] = i + Long.numberOfTrailingZeros(lanes);
+            }
+        }
+        for (; i < values.length; i++) {
+            if (values[i] >= low && values[i] < high) {
+                indexes[count++] = i;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Branch and bound proves the optima of small generated instances, whatever the first upper bound and
+ * the number of threads, and returns them as feasible schedules.
+ */
+class BranchAndBoundTest {
+
+    /**
+     * Optima of InstanceGenerator(7, 4, seed) for seeds 0 to 19, as found by an earlier, independent search.
+     */
+    private static final int[] OPTIMA = {19, 21, 17, 30, 27, 18, 32, 31, 21, 22, 26, 23, 20, 24, 28, 33, 16, 24, 32, 42};
+
+    @Test
+    void provesKnownOptima() throws IOException {
+        for (int seed = 0; seed < OPTIMA.length; seed++) {
+            String instance = new InstanceGenerator(7, 4, seed).writeTemporary().toString();
+            assertEquals(OPTIMA[seed], solve(instance, 1, 0, 0), "seed " + seed);
+            assertEquals(OPTIMA[seed], solve(instance, 2, 20, seed), "seed " + seed + " after annealing");
+        }
+    }
+
+    @Test
+    void optimumDoesNotDependOnAnnealedUpperBound() throws IOException {
+        // annealing with seed 2 ends at makespan 31, the optimum of 30 ends at a dummy activity at 31
+        String instance = new InstanceGenerator(9, 5, 8).writeTemporary().toString();
+        for (long seed = 0; seed < 4; seed++) {
+            assertEquals(30, solve(instance, 1, 100, seed), "annealing seed " + seed);
+        }
+    }
+
+    @Test
+    void optimumIsNoWorseThanAnnealing() throws IOException {
+        for (int seed = 0; seed < 6; seed++) {
+            String instance = new InstanceGenerator(9, 8, seed).writeTemporary().toString();
+            SimulatedAnnealing annealing = new SimulatedAnnealing(instance);
+            annealing.setSeed(seed);
+            annealing.setThreads(1);
+            Individual annealed = annealing.run(new TerminationCriteria(100), population -> { });
+            int optimum = solve(instance, 1, 0, 0);
+            assertTrue(annealed.getConflicts() > 0 || optimum <= annealed.getDuration(),
+                    "seed " + seed + ": optimum " + optimum + ", annealed " + annealed.getDuration());
+        }
+    }
+
+    /**
+     * Returns the proven optimum, after checking the returned schedule.
+     */
+    private static int solve(String instance, int threads, int annealingGenerations, long seed) {
+        BranchAndBound branchAndBound = new BranchAndBound(instance);
+        branchAndBound.setThreads(threads);
+        branchAndBound.setAnnealingGenerations(annealingGenerations);
+        branchAndBound.setSeed(seed);
+        TerminationCriteria termination = new TerminationCriteria();
+        termination.setTimeBudgetMillis(30_000);
+        Individual best = branchAndBound.run(termination, population -> { });
+        assertTrue(branchAndBound.isComplete(), instance + " not solved");
+        assertEquals(0, best.getConflicts(), instance);
+        assertEquals(0, new ConstraintValidation(best.getSchedule()).getNumberOfConflicts(), instance);
+        return (int) best.getDuration();
+    }
+}
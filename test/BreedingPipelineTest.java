@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+
+/**
+ * Pipelined generations give the same populations as breeding and evaluating one phase after the other.
+ */
+class BreedingPipelineTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    @Test
+    void pipelinedRunEqualsSerialRun() {
+        List<String> serial = new ArrayList<>();
+        Individual serialBest = geneticAlgorithm().run(new TerminationCriteria(30), population -> serial.add(
+                population.toString()));
+
+        for (int[] configuration : new int[][]{{1, 1, 1}, {3, 2, 4}, {2, 4, 64}}) {
+            GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+            geneticAlgorithm.enablePipeline(configuration[0], configuration[1], configuration[2]);
+            List<String> pipelined = new ArrayList<>();
+            Individual best = geneticAlgorithm.run(new TerminationCriteria(30), population -> pipelined.add(
+                    population.toString()));
+            assertEquals(serial, pipelined);
+            assertEquals(serialBest.getDuration(), best.getDuration());
+            assertEquals(serialBest.getConflicts(), best.getConflicts());
+            assertArrayEquals(serialBest.getSchedule().getStartTimes(), best.getSchedule().getStartTimes());
+            assertArrayEquals(serialBest.getSchedule().getSlotResources(), best.getSchedule().getSlotResources());
+        }
+    }
+
+    @Test
+    void statisticsIncludeMemeticResults() {
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        geneticAlgorithm.enablePipeline(2, 2, 8);
+        geneticAlgorithm.enableMemetic(4, 500, 2);
+        List<String> pipelined = new ArrayList<>();
+        List<String> reevaluated = new ArrayList<>();
+        geneticAlgorithm.run(new TerminationCriteria(10), population -> {
+            pipelined.add(population.toString());
+            population.evaluateDuration();
+            population.evaluateConstraints();
+            reevaluated.add(population.toString());
+        });
+        assertEquals(reevaluated, pipelined);
+    }
+
+    @Test
+    @Timeout(10)
+    void failsWhenEvaluationFails() {
+        BreedingPipeline pipeline = new BreedingPipeline(1, 1, 2);
+        try {
+            assertThrows(IllegalStateException.class,
+                    () -> pipeline.run(50, 50, i -> new Individual(null), 100.0, Long.MAX_VALUE));
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void failsWhenBreedingFails() {
+        BreedingPipeline pipeline = new BreedingPipeline(2, 2, 2);
+        try {
+            assertThrows(IllegalStateException.class, () -> pipeline.run(50, 50, i -> {
+                throw new IllegalArgumentException("No child " + i);
+            }, 100.0, Long.MAX_VALUE));
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void stopsAtDeadline() {
+        BreedingPipeline pipeline = new BreedingPipeline(2, 2, 2);
+        try {
+            assertNull(pipeline.run(50, 50, i -> new Individual(null), 100.0, System.nanoTime()));
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void rejectsPopulationsOffHeap() {
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        geneticAlgorithm.enablePipeline(1, 1, 1);
+        geneticAlgorithm.enableOffHeapPopulation();
+        assertThrows(IllegalStateException.class, () -> geneticAlgorithm.run(new TerminationCriteria(1), p -> { }));
+    }
+
+    private static GeneticAlgorithm geneticAlgorithm() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(50);
+        geneticAlgorithm.enableAdaptiveOperators();
+        geneticAlgorithm.setGreedySeedFraction(0.1);
+        return geneticAlgorithm;
+    }
+}
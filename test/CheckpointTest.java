@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Runs resumed from a checkpoint give the same populations as uninterrupted runs.
+ */
+class CheckpointTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumedRunEqualsUninterruptedRun() throws Exception {
+        List<String> uninterrupted = new ArrayList<>();
+        Individual expected = geneticAlgorithm().run(new TerminationCriteria(30),
+                population -> uninterrupted.add(population.toString()));
+
+        Path checkpoint = directory.resolve("run.checkpoint");
+        GeneticAlgorithm interrupted = geneticAlgorithm();
+        interrupted.enableCheckpoints(checkpoint, 10);
+        List<String> resumed = new ArrayList<>();
+        interrupted.run(new TerminationCriteria(20), population -> resumed.add(population.toString()));
+
+        Individual best = geneticAlgorithm().resume(checkpoint, new TerminationCriteria(30),
+                population -> resumed.add(population.toString()));
+        assertEquals(uninterrupted, resumed);
+        assertEquals(expected.getDuration(), best.getDuration());
+        assertEquals(expected.getConflicts(), best.getConflicts());
+        assertArrayEquals(expected.getSchedule().getStartTimes(), best.getSchedule().getStartTimes());
+    }
+
+    @Test
+    void checkpointsAgainInNextRun() throws Exception {
+        Path checkpoint = directory.resolve("run.checkpoint");
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        geneticAlgorithm.enableCheckpoints(checkpoint, 5);
+        geneticAlgorithm.run(new TerminationCriteria(5), population -> { });
+        geneticAlgorithm.run(new TerminationCriteria(10), population -> { });
+
+        TerminationCriteria termination = new TerminationCriteria(10);
+        geneticAlgorithm().resume(checkpoint, termination, population -> { });
+        assertEquals(10, termination.getGeneration());
+    }
+
+    private static GeneticAlgorithm geneticAlgorithm() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(29);
+        geneticAlgorithm.enableAdaptiveOperators();
+        geneticAlgorithm.setGreedySeedFraction(0.1);
+        return geneticAlgorithm;
+    }
+}
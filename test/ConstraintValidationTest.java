@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * The conflict count of ConstraintValidation equals the count of the plain pairwise comparison,
+ * for feasible schedules and for schedules with shifted activities, unassigned slots and reassigned resources.
+ */
+class ConstraintValidationTest {
+
+    @Test
+    void conflictsMatchPairwiseComparison() throws Exception {
+        String[] instances = {
+                "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn",
+                new InstanceGenerator(60, 12, 7).writeTemporary().toString()
+        };
+        SplittableRandom random = new SplittableRandom(45);
+        for (String instance : instances) {
+            InstanceLoader loader = new InstanceLoader(instance);
+            loader.loadInstance();
+            Schedule template = new Schedule(loader);
+            for (int i = 0; i < 200; i++) {
+                Schedule schedule = template.copy(template.getActivities());
+                new RandomAlgorithm().schedule(schedule, random);
+                if (i % 2 == 1) {
+                    perturb(schedule, random);
+                }
+                assertEquals(pairwiseConflicts(schedule), new ConstraintValidation(schedule).validateConflictConstraint(),
+                        "schedule " + i + " of " + instance);
+            }
+        }
+    }
+
+    private static void perturb(Schedule schedule, SplittableRandom random) {
+        ProblemModel model = schedule.getModel();
+        int[] start = schedule.getStartTimes();
+        int[] slotResource = schedule.getSlotResources();
+        for (int change = 0; change < 3; change++) {
+            start[random.nextInt(start.length)] += random.nextInt(-5, 6);
+            if (model.getNumSlots() > 0) {
+                slotResource[random.nextInt(model.getNumSlots())] = random.nextInt(-1, model.getNumResources());
+            }
+        }
+    }
+
+    private static int pairwiseConflicts(Schedule schedule) {
+        ProblemModel model = schedule.getModel();
+        int[] start = schedule.getStartTimes();
+        int conflicts = 0;
+        for (int a = 0; a < model.getNumActivities(); a++) {
+            for (int b = 0; b < model.getNumActivities(); b++) {
+                if (a != b && start[a] <= start[b] && start[a] + model.getDuration(a) > start[b]
+                        && haveSameResourceAssigned(schedule, a, b)) {
+                    conflicts += model.getNumSkills();
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private static boolean haveSameResourceAssigned(Schedule schedule, int a, int b) {
+        ProblemModel model = schedule.getModel();
+        int[] slotResource = schedule.getSlotResources();
+        for (int k = 0; k < model.getNumSkills(); k++) {
+            if (model.getRequired(a, k) == 0 || model.getRequired(b, k) == 0) {
+                return false;
+            }
+            for (int s = model.getFirstSlot(a, k); s < model.getEndSlot(a, k); s++) {
+                for (int t = model.getFirstSlot(b, k); t < model.getEndSlot(b, k); t++) {
+                    if (slotResource[s] == slotResource[t]) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Every priority rule gives a feasible schedule of all activities on every shipped instance,
+ * also when a random eligible activity is picked now and then.
+ */
+class GreedyAlgorithmTest {
+
+    @Test
+    void everyRuleSchedulesEveryInstance() throws IOException {
+        List<Path> instances = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(Path.of("instances"), "*.dzn")) {
+            directory.forEach(instances::add);
+        }
+        assertTrue(instances.size() >= 5, "instances found: " + instances);
+        SplittableRandom random = new SplittableRandom(33);
+        for (Path instance : instances) {
+            InstanceLoader loader = new InstanceLoader(instance.toString());
+            loader.loadInstance();
+            Schedule template = new Schedule(loader);
+            for (GreedyAlgorithm.PriorityRule rule : GreedyAlgorithm.PriorityRule.values()) {
+                Schedule pure = template.copy(template.getActivities());
+                new GreedyAlgorithm().schedule(pure, rule);
+                assertFeasible(pure, rule + " on " + instance);
+
+                Schedule biased = template.copy(template.getActivities());
+                new GreedyAlgorithm().schedule(biased, rule, random);
+                assertFeasible(biased, rule + " with random picks on " + instance);
+            }
+        }
+    }
+
+    private static void assertFeasible(Schedule schedule, String message) {
+        assertEquals(0, new ConstraintValidation(schedule).getNumberOfConflicts(), message);
+        assertEquals(schedule.getModel().getNumActivities(), schedule.getActivities().length, message);
+    }
+}
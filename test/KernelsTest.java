@@ -0,0 +1,54 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * VectorKernels give the same results as the scalar loops of Kernels, for lengths around the vector width.
+ */
+class KernelsTest {
+
+    private static final SplittableRandom RANDOM = new SplittableRandom(45);
+
+    @Test
+    void vectorModuleIsUsed() {
+        assertTrue(Kernels.VECTORIZED, "tests run with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void maxIsIdentical() {
+        for (int length = 0; length < 100; length++) {
+            int[] values = randomValues(length);
+            for (int from = 0; from <= Math.min(length, 9); from++) {
+                assertEquals(Kernels.scalarMax(values, from, length), VectorKernels.max(values, from, length));
+            }
+        }
+    }
+
+    @Test
+    void indexesWithinAreIdentical() {
+        for (int length = 0; length < 100; length++) {
+            int[] values = randomValues(length);
+            int low = RANDOM.nextInt(-50, 50);
+            int high = low + RANDOM.nextInt(0, 60);
+            int[] expected = new int[length];
+            int[] actual = new int[length];
+            int count = Kernels.scalarIndexesWithin(values, low, high, expected);
+            assertEquals(count, VectorKernels.indexesWithin(values, low, high, actual));
+            assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count));
+        }
+    }
+
+    private static int[] randomValues(int length) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = RANDOM.nextInt(-100, 100);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Every lower bound is at most the optimum, proven by branch and bound without stopping at the bounds,
+ * on generated instances of 7 activities.
+ */
+class LowerBoundsTest {
+
+    @Test
+    void boundsDoNotExceedOptimum() throws IOException {
+        for (int seed = 0; seed < 60; seed++) {
+            String instance = new InstanceGenerator(7, 3 + seed % 4, seed).writeTemporary().toString();
+            BranchAndBound branchAndBound = new BranchAndBound(instance);
+            branchAndBound.setThreads(1);
+            branchAndBound.setAnnealingGenerations(0);
+            branchAndBound.setStopBound(0);
+            TerminationCriteria termination = new TerminationCriteria();
+            termination.setTimeBudgetMillis(30_000);
+            int optimum = (int) branchAndBound.run(termination, population -> { }).getDuration();
+            assertTrue(branchAndBound.isComplete(), "seed " + seed + " not solved");
+
+            InstanceLoader loader = new InstanceLoader(instance);
+            loader.loadInstance();
+            LowerBounds bounds = loader.getLowerBounds();
+            String message = "seed " + seed + ", optimum " + optimum;
+            assertTrue(bounds.getCriticalPath() <= optimum, message + ", critical path " + bounds.getCriticalPath());
+            assertTrue(bounds.getResourceEnergy() <= optimum, message + ", resource energy " + bounds.getResourceEnergy());
+            assertTrue(bounds.getSkillEnergy() <= optimum, message + ", skill energy " + bounds.getSkillEnergy());
+            assertTrue(bounds.getEnergeticReasoning() <= optimum,
+                    message + ", energetic reasoning " + bounds.getEnergeticReasoning());
+            assertTrue(bounds.getLowerBound() <= optimum, message + ", lower bound " + bounds.getLowerBound());
+        }
+    }
+}
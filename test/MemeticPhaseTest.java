@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Memetic runs depend only on the seed, not on timing or the number of search threads,
+ * and the searches stop at the deadline of the run.
+ */
+class MemeticPhaseTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    @Test
+    void sameSeedGivesSamePopulations() {
+        List<String> expected = run(3);
+        assertEquals(expected, run(3));
+        assertEquals(expected, run(1));
+    }
+
+    @Test
+    void searchesStopAtDeadlineOfRun() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(27);
+        geneticAlgorithm.enableMemetic(4, Long.MAX_VALUE, 1);
+        TerminationCriteria termination = new TerminationCriteria(1000);
+        termination.setTimeBudgetMillis(300);
+        int[] generations = {0};
+        long start = System.nanoTime();
+        geneticAlgorithm.run(termination, population -> generations[0]++);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000, elapsedMillis + " ms");
+        assertEquals(generations[0] - 1, termination.getGeneration());
+    }
+
+    private static List<String> run(int threads) {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(30);
+        geneticAlgorithm.enableAdaptiveOperators();
+        geneticAlgorithm.enableMemetic(4, 2000, threads);
+        List<String> populations = new ArrayList<>();
+        Individual best = geneticAlgorithm.run(new TerminationCriteria(20), population -> populations.add(
+                population.toString()));
+        populations.add(best.getDuration() + ";" + best.getConflicts());
+        return populations;
+    }
+}
@@ -0,0 +1,39 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Occupancy bitmaps agree with a plain grid of booleans, for intervals across word boundaries.
+ */
+class OccupancyTest {
+
+    @Test
+    void bitmapsMatchGrid() {
+        SplittableRandom random = new SplittableRandom(46);
+        int numResources = 3;
+        Occupancy occupancy = new Occupancy();
+        for (int horizon : new int[]{1, 63, 64, 65, 132, 200}) {
+            occupancy.reset(numResources, horizon);
+            boolean[][] grid = new boolean[numResources][horizon];
+            for (int i = 0; i < 500; i++) {
+                int resource = random.nextInt(numResources);
+                int from = random.nextInt(horizon);
+                int to = random.nextInt(from, Math.min(horizon, from + 70) + 1);
+                boolean free = true;
+                for (int t = from; t < to; t++) {
+                    free &= !grid[resource][t];
+                }
+                assertEquals(free, occupancy.isFree(resource, from, to));
+                if (random.nextInt(4) == 0) {
+                    assertEquals(free, occupancy.tryOccupy(resource, from, to));
+                    for (int t = from; free && t < to; t++) {
+                        grid[resource][t] = true;
+                    }
+                }
+            }
+        }
+    }
+}
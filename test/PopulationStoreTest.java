@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Populations kept off heap evolve as on the heap, and records keep schedules unchanged.
+ */
+class PopulationStoreTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    @Test
+    void offHeapRunEqualsHeapRun() {
+        List<String> heap = new ArrayList<>();
+        Individual heapBest = geneticAlgorithm().run(new TerminationCriteria(30), population -> heap.add(
+                population.toString()));
+
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        geneticAlgorithm.enableOffHeapPopulation();
+        List<String> offHeap = new ArrayList<>();
+        Individual best = geneticAlgorithm.run(new TerminationCriteria(30), population -> offHeap.add(
+                population.toString()));
+        assertEquals(heap, offHeap);
+        assertEquals(heapBest.getDuration(), best.getDuration());
+        assertEquals(heapBest.getConflicts(), best.getConflicts());
+        assertArrayEquals(heapBest.getSchedule().getStartTimes(), best.getSchedule().getStartTimes());
+        assertArrayEquals(heapBest.getSchedule().getSlotResources(), best.getSchedule().getSlotResources());
+    }
+
+    @Test
+    void cursorStoresAndLoadsSchedules() {
+        InstanceLoader loader = new InstanceLoader(INSTANCE);
+        loader.loadInstance();
+        Schedule template = new Schedule(loader);
+        PopulationStore store = new PopulationStore(template, 20);
+        PopulationStore.Cursor cursor = store.cursor();
+        SplittableRandom random = new SplittableRandom(44);
+        GreedyAlgorithm.PriorityRule[] rules = GreedyAlgorithm.PriorityRule.values();
+        Schedule[] schedules = new Schedule[store.size()];
+        for (int i = 0; i < schedules.length; i++) {
+            schedules[i] = template.copy(template.getActivities());
+            new GreedyAlgorithm().schedule(schedules[i], rules[i % rules.length], random);
+            cursor.at(i).store(schedules[i]);
+            cursor.setDuration(i + 0.5);
+            cursor.setConflicts(i);
+        }
+
+        for (int i = schedules.length - 1; i >= 0; i--) {
+            Schedule expected = schedules[i];
+            Schedule loaded = store.newSchedule();
+            cursor.at(i).load(loaded);
+            assertEquals(i + 0.5, cursor.getDuration());
+            assertEquals(i, cursor.getConflicts());
+            assertEquals(new Evaluation(expected).getDuration(), cursor.getMakespan(), "record " + i);
+            assertArrayEquals(order(expected), order(loaded), "record " + i);
+            assertArrayEquals(expected.getStartTimes(), loaded.getStartTimes(), "record " + i);
+            assertArrayEquals(expected.getSlotResources(), loaded.getSlotResources(), "record " + i);
+            assertArrayEquals(expected.getResourceFinishTimes(), loaded.getResourceFinishTimes(), "record " + i);
+            assertArrayEquals(expected.getCurrentActivityIds(), loaded.getCurrentActivityIds(), "record " + i);
+
+            Schedule assigned = store.newSchedule();
+            cursor.loadAssignments(assigned);
+            assertArrayEquals(expected.getStartTimes(), assigned.getStartTimes(), "record " + i);
+            assertArrayEquals(expected.getSlotResources(), assigned.getSlotResources(), "record " + i);
+        }
+    }
+
+    private static int[] order(Schedule schedule) {
+        return Arrays.stream(schedule.getActivities()).mapToInt(Activity::getIndex).toArray();
+    }
+
+    private static GeneticAlgorithm geneticAlgorithm() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(44);
+        geneticAlgorithm.enableAdaptiveOperators();
+        geneticAlgorithm.setGreedySeedFraction(0.1);
+        return geneticAlgorithm;
+    }
+}
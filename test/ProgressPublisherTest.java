@@ -0,0 +1,159 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * ProgressPublisher: delivery within demand, coalescing for slow subscribers, completion and early stop.
+ */
+class ProgressPublisherTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deliversProgressInOrderUpToLastGeneration() throws Exception {
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        TerminationCriteria termination = new TerminationCriteria(20);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        try (ProgressPublisher publisher = new ProgressPublisher(geneticAlgorithm, termination, executor)) {
+            publisher.subscribe(recorder);
+            geneticAlgorithm.run(termination, publisher);
+        }
+        assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+
+        List<ProgressPublisher.Progress> received = recorder.received;
+        for (int i = 1; i < received.size(); i++) {
+            assertTrue(received.get(i - 1).getGeneration() < received.get(i).getGeneration());
+        }
+        assertTrue(received.get(0).isImproved());
+        ProgressPublisher.Progress last = received.get(received.size() - 1);
+        assertEquals(20, last.getGeneration());
+        assertSame(geneticAlgorithm.getBestIndividual(), last.getBest());
+    }
+
+    @Test
+    void slowSubscriberDoesNotStallTheRunAndGetsLatestProgress() throws Exception {
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        TerminationCriteria termination = new TerminationCriteria(50);
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(1) {
+            @Override
+            public void onNext(ProgressPublisher.Progress progress) {
+                super.onNext(progress);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ProgressPublisher publisher = new ProgressPublisher(geneticAlgorithm, termination, executor);
+        publisher.subscribe(recorder);
+        geneticAlgorithm.run(termination, publisher);
+        publisher.close();
+
+        release.countDown();
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+
+        List<ProgressPublisher.Progress> received = recorder.received;
+        assertEquals(2, received.size());
+        ProgressPublisher.Progress last = received.get(1);
+        assertEquals(50, last.getGeneration());
+        assertSame(geneticAlgorithm.getBestIndividual(), last.getBest());
+        assertEquals(last.getBest() != received.get(0).getBest(), last.isImproved());
+    }
+
+    @Test
+    void subscriberCanStopTheRun() throws Exception {
+        GeneticAlgorithm geneticAlgorithm = geneticAlgorithm();
+        TerminationCriteria termination = new TerminationCriteria(100000);
+        Recorder recorder = new Recorder(Long.MAX_VALUE) {
+            @Override
+            public void onNext(ProgressPublisher.Progress progress) {
+                super.onNext(progress);
+                if (progress.getGeneration() >= 5) {
+                    geneticAlgorithm.stop();
+                }
+            }
+        };
+        try (ProgressPublisher publisher = new ProgressPublisher(geneticAlgorithm, termination, executor)) {
+            publisher.subscribe(recorder);
+            geneticAlgorithm.run(termination, publisher);
+        }
+        assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+        assertTrue(termination.getGeneration() < 100000);
+    }
+
+    @Test
+    void nonPositiveRequestFailsTheSubscription() throws Exception {
+        Recorder recorder = new Recorder(0);
+        ProgressPublisher publisher = new ProgressPublisher(geneticAlgorithm(), new TerminationCriteria(1), executor);
+        publisher.subscribe(recorder);
+        recorder.subscription.request(0);
+        assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, recorder.error);
+        assertEquals(0, publisher.getNumberOfSubscribers());
+    }
+
+    private static GeneticAlgorithm geneticAlgorithm() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(49);
+        return geneticAlgorithm;
+    }
+
+    private static class Recorder implements Flow.Subscriber<ProgressPublisher.Progress> {
+        final List<ProgressPublisher.Progress> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final long initialRequest;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(ProgressPublisher.Progress progress) {
+            received.add(progress);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Rows written by RunLog are read back by RunLogReader, a row cut short is ignored,
+ * and RunLogAggregator summarizes the logs, skipping those without rows.
+ */
+class RunLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackRowsAndIgnoresTornRow() throws IOException {
+        Path path = directory.resolve("run.runlog");
+        try (RunLog runLog = new RunLog(path, "inst_n20_00", 42)) {
+            for (int generation = 0; generation < 200; generation++) {
+                runLog.append(generation, generation % 7, 100 - generation / 4.0, 150.5, 120.25, generation / 1000.0,
+                        generation * 1_000_000L);
+            }
+        }
+        Files.write(path, new byte[RunLog.ROW_SIZE - 1], StandardOpenOption.APPEND);
+
+        RunLogReader reader = new RunLogReader(path);
+        assertEquals("inst_n20_00", reader.getInstance());
+        assertEquals(42, reader.getSeed());
+        assertEquals(200, reader.getRows());
+        for (int row = 0; row < 200; row++) {
+            assertEquals(row, reader.getGeneration(row));
+            assertEquals(row % 7, reader.getConflicts(row));
+            assertEquals(100 - row / 4.0, reader.getBest(row));
+            assertEquals(150.5, reader.getWorst(row));
+            assertEquals(120.25, reader.getAvg(row));
+            assertEquals(row / 1000.0, reader.getGap(row));
+            assertEquals(row * 1_000_000L, reader.getElapsedNanos(row));
+        }
+    }
+
+    @Test
+    void aggregatesRunsSkippingEmptyLogs() throws IOException {
+        Path a1 = log("a1", "a", 11, 10, 1);
+        Path a2 = log("a2", "a", 13, 12, 2);
+        Path a3 = log("a3", "a", 15, 14, 3);
+        Path b = log("b", "b", 21, 20, 4);
+        Path empty = directory.resolve("empty.runlog");
+        new RunLog(empty, "a", 0).close();
+        Files.write(empty, new byte[RunLog.ROW_SIZE / 2], StandardOpenOption.APPEND);
+
+        // a: best 10, 12, 14, t(2) = 4.303, half width 4.303 * 2 / sqrt(3) = 4.97
+        // all: best 10, 12, 14, 20, t(3) = 3.182, half width 3.182 * sqrt(56 / 3) / 2 = 6.87
+        assertEquals("instance;runs;meanBest;medianBest;bestCiLow;bestCiHigh;meanSeconds;medianSeconds\n"
+                        + "a;3;12.0;12.0;7.03;16.97;2.0;2.0\n"
+                        + "b;1;20.0;20.0;20.0;20.0;4.0;4.0\n"
+                        + "all;4;14.0;13.0;7.13;20.87;2.5;2.5\n",
+                RunLogAggregator.report(List.of(a1, empty, a2, a3, b)));
+    }
+
+    /**
+     * Log of two generations with given best makespans, the run ending after given seconds.
+     */
+    private Path log(String name, String instance, double firstBest, double lastBest, int seconds) throws IOException {
+        Path path = directory.resolve(name + ".runlog");
+        try (RunLog runLog = new RunLog(path, instance, 1)) {
+            runLog.append(0, 0, firstBest, 30, 25, 0, 0);
+            runLog.append(1, 0, lastBest, 30, 25, 0, seconds * 1_000_000_000L);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,70 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Hopcroft-Karp finds a matching as large as the brute force maximum on small random bipartite graphs,
+ * and the matching it returns uses only edges of the graph and every resource at most once.
+ */
+class SkillMatchingTest {
+
+    @Test
+    void matchesBruteForceMaximum() {
+        SplittableRandom random = new SplittableRandom(34);
+        SkillMatching matching = new SkillMatching();
+        for (int graph = 0; graph < 3000; graph++) {
+            int numSlots = random.nextInt(1, 7);
+            int numResources = random.nextInt(1, 7);
+            double density = random.nextDouble();
+            boolean[][] edge = new boolean[numSlots][numResources];
+            int[] offset = new int[numSlots + 1];
+            int[] adjacency = new int[numSlots * numResources];
+            for (int s = 0; s < numSlots; s++) {
+                offset[s + 1] = offset[s];
+                for (int r = 0; r < numResources; r++) {
+                    if (random.nextDouble() < density) {
+                        edge[s][r] = true;
+                        adjacency[offset[s + 1]++] = r;
+                    }
+                }
+            }
+
+            int matched = matching.match(numSlots, numResources, offset, adjacency);
+            assertEquals(bruteForceMaximum(edge, 0, new boolean[numResources]), matched, "graph " + graph);
+
+            int[] slotMatch = matching.getSlotMatch();
+            boolean[] used = new boolean[numResources];
+            int size = 0;
+            for (int s = 0; s < numSlots; s++) {
+                int r = slotMatch[s];
+                if (r >= 0) {
+                    assertTrue(edge[s][r], "graph " + graph + " matches slot " + s + " to non-adjacent " + r);
+                    assertFalse(used[r], "graph " + graph + " matches resource " + r + " twice");
+                    used[r] = true;
+                    size++;
+                }
+            }
+            assertEquals(matched, size, "graph " + graph);
+        }
+    }
+
+    private static int bruteForceMaximum(boolean[][] edge, int slot, boolean[] used) {
+        if (slot == edge.length) {
+            return 0;
+        }
+        int best = bruteForceMaximum(edge, slot + 1, used);
+        for (int r = 0; r < used.length; r++) {
+            if (edge[slot][r] && !used[r]) {
+                used[r] = true;
+                best = Math.max(best, 1 + bruteForceMaximum(edge, slot + 1, used));
+                used[r] = false;
+            }
+        }
+        return best;
+    }
+}
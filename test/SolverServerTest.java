@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+
+/**
+ * Jobs of the SolverServer on localhost: solving by path and inline, admission control and cancellation,
+ * also while many clients watch.
+ */
+class SolverServerTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private SolverServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new SolverServer(0, 1, 1);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void solvesInstanceByPathAndStreamsProgress() throws Exception {
+        HttpResponse<String> submitted = post("?instance=" + INSTANCE + "&seed=42&generations=20", "");
+        assertEquals(202, submitted.statusCode());
+
+        List<String> lines = progress(submitted.body().trim());
+        assertEquals("queued", lines.get(0));
+        assertEquals("running", lines.get(1));
+        assertTrue(lines.get(2).startsWith("best;0;"), lines.get(2));
+        String[] done = lines.get(lines.size() - 1).split(";");
+        assertEquals("done", done[0]);
+        assertTrue(Integer.parseInt(done[1]) >= 48, "makespan at least mint");
+    }
+
+    @Test
+    void solvesInlineInstance() throws Exception {
+        String dzn = Files.readString(Paths.get(INSTANCE));
+        HttpResponse<String> submitted = post("?solver=tabu&seed=1&generations=5", dzn);
+        assertEquals(202, submitted.statusCode());
+        List<String> lines = progress(submitted.body().trim());
+        assertTrue(lines.get(lines.size() - 1).startsWith("done;"), lines.toString());
+    }
+
+    @Test
+    void solvesSmallInstanceExactly() throws Exception {
+        String dzn = Files.readString(new InstanceGenerator(7, 4, 0).writeTemporary());
+        HttpResponse<String> submitted = post("?solver=bb&seed=1", dzn);
+        assertEquals(202, submitted.statusCode());
+        List<String> lines = progress(submitted.body().trim());
+        assertTrue(lines.get(lines.size() - 1).startsWith("done;19;"), lines.toString());
+
+        assertEquals(400, post("?instance=" + INSTANCE + "&solver=bb", "").statusCode());
+    }
+
+    @Test
+    void rejectsJobsBeyondQueueAndCancels() throws Exception {
+        String running = post("?instance=" + INSTANCE + "&generations=1000000", "").body().trim();
+        String queued = post("?instance=" + INSTANCE + "&generations=1000000", "").body().trim();
+        assertEquals(503, post("?instance=" + INSTANCE, "").statusCode());
+
+        assertEquals(200, delete(queued).statusCode());
+        List<String> queuedLines = progress(queued);
+        assertTrue(queuedLines.get(queuedLines.size() - 1).startsWith("cancelled;"), queuedLines.toString());
+
+        assertEquals(200, delete(running).statusCode());
+        List<String> runningLines = progress(running);
+        assertTrue(runningLines.get(runningLines.size() - 1).startsWith("cancelled;"), runningLines.toString());
+
+        assertEquals(202, post("?instance=" + INSTANCE + "&generations=1", "").statusCode());
+    }
+
+    @Test
+    @Timeout(30)
+    void cancelsWhileManyClientsWatch() throws Exception {
+        String running = post("?instance=" + INSTANCE + "&generations=1000000", "").body().trim();
+        List<CompletableFuture<HttpResponse<String>>> watchers = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            watchers.add(client.sendAsync(HttpRequest.newBuilder(uri("/jobs/" + running)).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        Thread.sleep(500);
+
+        assertEquals(200, delete(running).statusCode());
+        for (CompletableFuture<HttpResponse<String>> watcher : watchers) {
+            String[] lines = watcher.get().body().split("\n");
+            assertTrue(lines[lines.length - 1].startsWith("cancelled;"), lines[lines.length - 1]);
+        }
+    }
+
+    @Test
+    void rejectsBadRequests() throws Exception {
+        assertEquals(400, post("?instance=missing.dzn", "").statusCode());
+        assertEquals(400, post("?instance=" + INSTANCE + "&solver=unknown", "").statusCode());
+        assertEquals(404, client.send(HttpRequest.newBuilder(uri("/jobs/999")).build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private HttpResponse<String> post(String query, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri("/jobs" + query))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> delete(String id) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri("/jobs/" + id)).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private List<String> progress(String id) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri("/jobs/" + id)).build(), HttpResponse.BodyHandlers.ofLines())
+                .body().collect(Collectors.toList());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
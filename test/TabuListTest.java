@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * TabuList answers like a bounded ArrayDeque of the last tenure attributes, under random sequences
+ * with repeated attributes, colliding hashes and evictions of attributes that are still in the list.
+ */
+class TabuListTest {
+
+    @Test
+    void containsMatchesLastTenureAttributes() {
+        SplittableRandom random = new SplittableRandom(31);
+        for (int tenure : new int[]{1, 2, 3, 7, 16, 50}) {
+            for (int range : new int[]{4, 40, 1000}) {
+                TabuList tabuList = new TabuList(tenure);
+                ArrayDeque<Long> model = new ArrayDeque<>();
+                for (int step = 0; step < 3000; step++) {
+                    if (random.nextInt(500) == 0) {
+                        tabuList.clear();
+                        model.clear();
+                    }
+                    long attribute = attribute(random, range);
+                    tabuList.add(attribute);
+                    model.addLast(attribute);
+                    if (model.size() > tenure) {
+                        model.removeFirst();
+                    }
+                    for (int query = 0; query < 8; query++) {
+                        long queried = query % 2 == 0 ? attribute(random, range) : model.peekFirst();
+                        assertEquals(model.contains(queried), tabuList.contains(queried),
+                                "tenure " + tenure + ", range " + range + ", step " + step + ", attribute " + queried);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void handlesAttributesOfTheSameSlot() {
+        TabuList tabuList = new TabuList(4);
+        ArrayDeque<Long> model = new ArrayDeque<>();
+        // multiples of 2^32 mix into few buckets of the small table, so probe sequences overlap
+        long[] attributes = {0, 1L << 32, 2L << 32, 0, 3L << 32, 1L << 32, -1, 4L << 32, 0, 5L << 32, 2L << 32};
+        for (long attribute : attributes) {
+            tabuList.add(attribute);
+            model.addLast(attribute);
+            if (model.size() > 4) {
+                model.removeFirst();
+            }
+            for (long queried : attributes) {
+                assertEquals(model.contains(queried), tabuList.contains(queried), "attribute " + queried);
+            }
+        }
+    }
+
+    private static long attribute(SplittableRandom random, int range) {
+        long attribute = random.nextInt(range);
+        // also high bits, as moves encode activity and resource in both halves
+        return random.nextBoolean() ? attribute : attribute << 32 | random.nextInt(3);
+    }
+}
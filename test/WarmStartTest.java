@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * InstanceDiff, reuse of the precedence analysis, ScheduleRepair and warm starts of the genetic algorithm.
+ */
+class WarmStartTest {
+
+    private static final String INSTANCE = "instances/inst_set1a_sf0.5_nc1.5_n20_m10_00.dzn";
+
+    @Test
+    void precedenceAnalysisIsReusedWhereDiffLeavesItValid() {
+        InstanceLoader loader = load();
+        PrecedenceAnalysis analysis = loader.getPrecedenceAnalysis();
+
+        assertSame(analysis, new InstanceDiff().removeResource(3).apply(loader).getPrecedenceAnalysis());
+
+        InstanceLoader longer = new InstanceDiff().setDuration(5, 20).apply(loader);
+        assertSame(analysis.getOrder(), longer.getPrecedenceAnalysis().getOrder());
+        assertSameAnalysis(new PrecedenceAnalysis(longer.getModel()), longer.getPrecedenceAnalysis());
+
+        InstanceLoader ordered = new InstanceDiff().addPrecedence(2, 9).apply(loader);
+        assertNotSame(analysis.getOrder(), ordered.getPrecedenceAnalysis().getOrder());
+        assertSameAnalysis(new PrecedenceAnalysis(ordered.getModel()), ordered.getPrecedenceAnalysis());
+    }
+
+    @Test
+    void rejectsCyclesAndUnknownIds() {
+        InstanceLoader loader = load();
+        assertThrows(IllegalArgumentException.class, () -> new InstanceDiff().addPrecedence(9, 9).apply(loader));
+        assertThrows(IllegalArgumentException.class, () -> new InstanceDiff().addPrecedence(2, 9).addPrecedence(9, 2)
+                .apply(loader));
+        assertThrows(IllegalArgumentException.class, () -> new InstanceDiff().setDuration(0, 1).apply(loader));
+        assertThrows(IllegalArgumentException.class, () -> new InstanceDiff().removeResource(99).apply(loader));
+    }
+
+    @Test
+    void repairedSchedulesAreFeasible() {
+        InstanceLoader loader = load();
+        InstanceDiff[] diffs = {
+                new InstanceDiff(),
+                new InstanceDiff().setDuration(5, 15).setDuration(7, 1),
+                new InstanceDiff().removeResource(3),
+                new InstanceDiff().addPrecedence(2, 9).addPrecedence(4, 12)
+        };
+        SplittableRandom random = new SplittableRandom(48);
+        Schedule template = new Schedule(loader);
+        for (InstanceDiff diff : diffs) {
+            InstanceLoader changed = diff.apply(loader);
+            ScheduleRepair repair = new ScheduleRepair(changed.getModel());
+            for (int i = 0; i < 20; i++) {
+                Schedule previous = template.copy(template.getActivities());
+                new RandomAlgorithm().schedule(previous, random);
+                Schedule repaired = new Schedule(changed);
+                repair.repair(previous, repaired);
+                assertTrue(new ConstraintValidation(repaired).validate());
+            }
+        }
+    }
+
+    @Test
+    void warmStartContinuesOnChangedInstance() {
+        GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(INSTANCE);
+        geneticAlgorithm.setSeed(48);
+        geneticAlgorithm.run(new TerminationCriteria(5), population -> { });
+
+        Individual best = geneticAlgorithm.warmStart(new InstanceDiff().setDuration(5, 15).addPrecedence(2, 9),
+                new TerminationCriteria(5), population -> { });
+        assertEquals(15, best.getSchedule().getModel().getDuration(4));
+        assertEquals(0, best.getConflicts());
+        assertTrue(new ConstraintValidation(best.getSchedule()).validate());
+    }
+
+    private static void assertSameAnalysis(PrecedenceAnalysis expected, PrecedenceAnalysis actual) {
+        assertArrayEquals(expected.getHeads(), actual.getHeads());
+        assertArrayEquals(expected.getTails(), actual.getTails());
+    }
+
+    private static InstanceLoader load() {
+        InstanceLoader loader = new InstanceLoader(INSTANCE);
+        loader.loadInstance();
+        return loader;
+    }
+}